@@ -1,5 +1,7 @@
 package com.groupeisi.config;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +12,589 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final SearchHistoryRecorder searchHistoryRecorder = new SearchHistoryRecorder();
+
+    private final SearchHistoryImport searchHistoryImport = new SearchHistoryImport();
+
+    private final SearchHistoryPartitioning searchHistoryPartitioning = new SearchHistoryPartitioning();
+
+    private final HibernateCache hibernateCache = new HibernateCache();
+
+    private final SearchHistoryDailyCount searchHistoryDailyCount = new SearchHistoryDailyCount();
+
+    private final SearchHistoryFeed searchHistoryFeed = new SearchHistoryFeed();
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    private final UserProvisioning userProvisioning = new UserProvisioning();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final UserBulkOperations userBulkOperations = new UserBulkOperations();
+
+    private final UserListing userListing = new UserListing();
+
+    private final DayFinderRange dayFinderRange = new DayFinderRange();
+
     // jhipster-needle-application-properties-property
+
+    public SearchHistoryRecorder getSearchHistoryRecorder() {
+        return searchHistoryRecorder;
+    }
+
+    public SearchHistoryImport getSearchHistoryImport() {
+        return searchHistoryImport;
+    }
+
+    public SearchHistoryPartitioning getSearchHistoryPartitioning() {
+        return searchHistoryPartitioning;
+    }
+
+    public HibernateCache getHibernateCache() {
+        return hibernateCache;
+    }
+
+    public SearchHistoryDailyCount getSearchHistoryDailyCount() {
+        return searchHistoryDailyCount;
+    }
+
+    public SearchHistoryFeed getSearchHistoryFeed() {
+        return searchHistoryFeed;
+    }
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    public UserProvisioning getUserProvisioning() {
+        return userProvisioning;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public UserBulkOperations getUserBulkOperations() {
+        return userBulkOperations;
+    }
+
+    public UserListing getUserListing() {
+        return userListing;
+    }
+
+    public DayFinderRange getDayFinderRange() {
+        return dayFinderRange;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    /**
+     * Write-behind recording of day finder lookups into the search history.
+     */
+    public static class SearchHistoryRecorder {
+
+        private boolean enabled = true;
+
+        private int queueCapacity = 65536;
+
+        private int batchSize = 500;
+
+        private long flushIntervalMs = 1000;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        private long maxBlockMs = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public long getMaxBlockMs() {
+            return maxBlockMs;
+        }
+
+        public void setMaxBlockMs(long maxBlockMs) {
+            this.maxBlockMs = maxBlockMs;
+        }
+    }
+
+    /**
+     * Bulk import of search history uploads.
+     */
+    public static class SearchHistoryImport {
+
+        private int batchSize = 500;
+
+        private int commitInterval = 10000;
+
+        private int maxReportedRejections = 100;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getCommitInterval() {
+            return commitInterval;
+        }
+
+        public void setCommitInterval(int commitInterval) {
+            this.commitInterval = commitInterval;
+        }
+
+        public int getMaxReportedRejections() {
+            return maxReportedRejections;
+        }
+
+        public void setMaxReportedRejections(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+    }
+
+    /**
+     * Monthly partitions of the search history, and their retention.
+     */
+    public static class SearchHistoryPartitioning {
+
+        private String cron = "0 30 1 * * ?";
+
+        private int premakeMonths = 3;
+
+        private int retentionMonths = 24;
+
+        private boolean archive = false;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getPremakeMonths() {
+            return premakeMonths;
+        }
+
+        public void setPremakeMonths(int premakeMonths) {
+            this.premakeMonths = premakeMonths;
+        }
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+
+        public boolean isArchive() {
+            return archive;
+        }
+
+        public void setArchive(boolean archive) {
+            this.archive = archive;
+        }
+    }
+
+    /**
+     * Coalesced maintenance of the number of lookups of each date.
+     */
+    public static class SearchHistoryDailyCount {
+
+        private long flushIntervalMs = 5000;
+
+        private int batchSize = 500;
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Server-sent events feed of the search history changes.
+     */
+    public static class SearchHistoryFeed {
+
+        private int bufferSize = 256;
+
+        private int replaySize = 1024;
+
+        private int maxSubscribers = 100;
+
+        private int senderThreads = 2;
+
+        private long timeoutMs = 1800000;
+
+        private long heartbeatIntervalMs = 15000;
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getReplaySize() {
+            return replaySize;
+        }
+
+        public void setReplaySize(int replaySize) {
+            this.replaySize = replaySize;
+        }
+
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public long getHeartbeatIntervalMs() {
+            return heartbeatIntervalMs;
+        }
+
+        public void setHeartbeatIntervalMs(long heartbeatIntervalMs) {
+            this.heartbeatIntervalMs = heartbeatIntervalMs;
+        }
+    }
+
+    /**
+     * Read replicas serving the read-only transactions.
+     */
+    public static class ReadReplicas {
+
+        private boolean enabled = false;
+
+        private long maxLagMs = 30000;
+
+        private long healthCheckIntervalMs = 5000;
+
+        private long timeoutMs = 1000;
+
+        private List<Replica> replicas = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxLagMs() {
+            return maxLagMs;
+        }
+
+        public void setMaxLagMs(long maxLagMs) {
+            this.maxLagMs = maxLagMs;
+        }
+
+        public long getHealthCheckIntervalMs() {
+            return healthCheckIntervalMs;
+        }
+
+        public void setHealthCheckIntervalMs(long healthCheckIntervalMs) {
+            this.healthCheckIntervalMs = healthCheckIntervalMs;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        /**
+         * A replica; the username and password default to the ones of the primary.
+         */
+        public static class Replica {
+
+            private String name;
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
+    }
+
+    /**
+     * Sizing of the Hibernate second level cache regions, each one independent from the others.
+     */
+    public static class HibernateCache {
+
+        private final Region searchHistory = new Region(10000, 3600);
+
+        private final Region authority = new Region(100, 86400);
+
+        private final Region authorityQueries = new Region(10, 86400);
+
+        public Region getSearchHistory() {
+            return searchHistory;
+        }
+
+        public Region getAuthority() {
+            return authority;
+        }
+
+        public Region getAuthorityQueries() {
+            return authorityQueries;
+        }
+
+        /**
+         * Heap size and time to live of a cache region.
+         */
+        public static class Region {
+
+            private long maxEntries;
+
+            private long timeToLiveSeconds;
+
+            public Region(long maxEntries, long timeToLiveSeconds) {
+                this.maxEntries = maxEntries;
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+    }
+
+    /**
+     * What to do with a new element when a bounded queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the new element immediately.
+         */
+        DROP,
+        /**
+         * Make the caller wait for free space, up to a maximum time, then drop the element.
+         */
+        BLOCK,
+    }
+    /**
+     * Bulk provisioning of users.
+     */
+    public static class UserProvisioning {
+
+        private int chunkSize = 500;
+
+        private int hashingThreads = 0;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getHashingThreads() {
+            return hashingThreads;
+        }
+
+        public void setHashingThreads(int hashingThreads) {
+            this.hashingThreads = hashingThreads;
+        }
+    }
+
+    /**
+     * Nightly removal of the users who did not activate their account.
+     */
+    public static class UserPurge {
+
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Operations applied by the administrators to many users at once.
+     */
+    public static class UserBulkOperations {
+
+        private int batchSize = 500;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Listing of the users with a cursor, which does not count them on every request.
+     */
+    public static class UserListing {
+
+        private long countTimeToLiveSeconds = 60;
+
+        /**
+         * @return how long the user counts sent along a cursor listing are cached, and so how far behind they can be.
+         */
+        public long getCountTimeToLiveSeconds() {
+            return countTimeToLiveSeconds;
+        }
+
+        public void setCountTimeToLiveSeconds(long countTimeToLiveSeconds) {
+            this.countTimeToLiveSeconds = countTimeToLiveSeconds;
+        }
+    }
+
+    /**
+     * Streaming of the day of week of every date of a range, which anyone may request.
+     */
+    public static class DayFinderRange {
+
+        private long maxDays = 1830;
+
+        /**
+         * @return the most dates a streamed range may hold, so that a single request cannot hold an async request thread
+         * for millions of dates.
+         */
+        public long getMaxDays() {
+            return maxDays;
+        }
+
+        public void setMaxDays(long maxDays) {
+            this.maxDays = maxDays;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
@@ -3,8 +3,11 @@ package com.groupeisi.config;
 import java.time.Duration;
 import org.ehcache.config.builders.*;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
@@ -20,17 +23,24 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final ApplicationProperties.HibernateCache hibernateCache;
+    private final ApplicationProperties.UserListing userListing;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+        jcacheConfiguration = regionConfiguration(ehcache.getMaxEntries(), ehcache.getTimeToLiveSeconds());
+        hibernateCache = applicationProperties.getHibernateCache();
+        userListing = applicationProperties.getUserListing();
+    }
+
+    /**
+     * Make Hibernate build its second level cache regions on the cache manager created by Spring, so that they are
+     * configured below and reported by the cache metrics.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
     @Bean
@@ -38,17 +48,57 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, com.groupeisi.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.groupeisi.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(
+                cm,
+                com.groupeisi.repository.UserRepository.USER_COUNTS_CACHE,
+                regionConfiguration(10, userListing.getCountTimeToLiveSeconds())
+            );
+            createCache(cm, com.groupeisi.domain.SearchHistory.class.getName(), hibernateCache.getSearchHistory());
+            createCache(cm, com.groupeisi.domain.Authority.class.getName(), hibernateCache.getAuthority());
+            createCache(cm, com.groupeisi.repository.AuthorityRepository.AUTHORITY_QUERIES_CACHE, hibernateCache.getAuthorityQueries());
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            // Query results are only valid as long as the update timestamps of their tables are known: never expire them
+            createCache(
+                cm,
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000)).build()
+                )
+            );
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, ApplicationProperties.HibernateCache.Region region) {
+        createCache(cm, cacheName, regionConfiguration(region.getMaxEntries(), region.getTimeToLiveSeconds()));
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
+        // Hit and miss counts are read by the Micrometer cache metrics, tagged with the cache name
+        cm.enableStatistics(cacheName, true);
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> regionConfiguration(long maxEntries, long timeToLiveSeconds) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
+                .build()
+        );
     }
 
     @Autowired(required = false)
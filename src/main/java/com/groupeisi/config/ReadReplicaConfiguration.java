@@ -0,0 +1,83 @@
+package com.groupeisi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the single {@link DataSource} by a {@link ReadReplicaRoutingDataSource} when
+ * {@code application.read-replicas.enabled} is set: read-only transactions go to the replicas, and everything else,
+ * including Liquibase, to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+        HikariDataSource primaryDataSource,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.ReadReplicas properties = applicationProperties.getReadReplicas();
+        List<ApplicationProperties.ReadReplicas.Replica> replicas = properties.getReplicas();
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            ApplicationProperties.ReadReplicas.Replica replica = replicas.get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica" + (i + 1);
+            replicaDataSources.put(name, replicaDataSource(primaryDataSource, name, replica, properties, meterRegistry));
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSources, properties, meterRegistry);
+    }
+
+    /**
+     * A pool with the settings of the primary one, which does not need the replica to start, and gives up quickly on it
+     * so that reads fall back to the primary.
+     */
+    private HikariDataSource replicaDataSource(
+        HikariDataSource primaryDataSource,
+        String name,
+        ApplicationProperties.ReadReplicas.Replica replica,
+        ApplicationProperties.ReadReplicas properties,
+        MeterRegistry meterRegistry
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        primaryDataSource.copyStateTo(dataSource);
+        dataSource.setPoolName("ReadReplica-" + name);
+        dataSource.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+        }
+        dataSource.setReadOnly(true);
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setConnectionTimeout(Math.max(250, properties.getTimeoutMs()));
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,201 @@
+package com.groupeisi.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} giving the connections of read-only transactions from a read replica, and every other connection
+ * from the primary.
+ * <p>
+ * The replicas are checked at a fixed interval: the primary stamps the {@code replica_heartbeat} row, and the age of
+ * the stamp read on a replica is its replication lag, give or take one interval. A replica that cannot be read, or lags
+ * more than {@code max-lag-ms}, gets no reads until a later check finds it back; without any usable replica, or when a
+ * replica fails to give a connection, reads go to the primary.
+ * <p>
+ * A transaction is only known to be read-only once it has begun, so this has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which gets the connection on the first
+ * statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    public static final String LAG_METER_NAME = "read.replica.lag";
+
+    private static final String STAMP_HEARTBEAT = "UPDATE replica_heartbeat SET beat = UTC_TIMESTAMP(3) WHERE id = 1";
+
+    private static final String READ_LAG = "SELECT TIMESTAMPDIFF(MICROSECOND, beat, UTC_TIMESTAMP(6)) DIV 1000 FROM replica_heartbeat WHERE id = 1";
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLagMs;
+
+    private final int queryTimeoutSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<Replica> usableReplicas = List.of();
+
+    public ReadReplicaRoutingDataSource(
+        DataSource primary,
+        Map<String, DataSource> replicas,
+        ApplicationProperties.ReadReplicas properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.maxLagMs = properties.getMaxLagMs();
+        this.queryTimeoutSeconds = (int) Math.max(1, properties.getTimeoutMs() / 1000);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge
+                .builder(LAG_METER_NAME, replica, r -> r.lagMs < 0 ? Double.NaN : r.lagMs)
+                .description("Replication lag of the read replica, in milliseconds, as of its last health check.")
+                .tag("replica", name)
+                .register(meterRegistry);
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = nextReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                fallBack(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = nextReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                fallBack(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private Replica nextReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        List<Replica> candidates = usableReplicas;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    private void fallBack(Replica replica, SQLException e) {
+        log.warn("Read replica {} did not give a connection, reading from the primary until it is checked again: {}", replica.name, e.getMessage());
+        replica.usable = false;
+        usableReplicas = replicas.stream().filter(r -> r.usable).toList();
+    }
+
+    /**
+     * Stamp the heartbeat on the primary, and measure the lag of every replica.
+     * <p>
+     * This is scheduled to get fired every 5 seconds by default.
+     */
+    @Scheduled(
+        initialDelayString = "${application.read-replicas.health-check-interval-ms:5000}",
+        fixedDelayString = "${application.read-replicas.health-check-interval-ms:5000}"
+    )
+    public synchronized void checkReplicas() {
+        stampHeartbeat();
+        for (Replica replica : replicas) {
+            replica.lagMs = readLag(replica);
+            boolean usable = replica.lagMs >= 0 && replica.lagMs <= maxLagMs;
+            if (usable && !replica.usable) {
+                log.info("Read replica {} is usable, {} ms behind the primary", replica.name, replica.lagMs);
+            } else if (!usable && replica.usable) {
+                log.warn("Read replica {} is not usable any more, {} ms behind the primary", replica.name, replica.lagMs);
+            }
+            replica.usable = usable;
+        }
+        usableReplicas = replicas.stream().filter(r -> r.usable).toList();
+    }
+
+    /**
+     * @return the names of the replicas currently getting the reads.
+     */
+    public List<String> getUsableReplicas() {
+        return usableReplicas.stream().map(replica -> replica.name).toList();
+    }
+
+    private void stampHeartbeat() {
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            statement.executeUpdate(STAMP_HEARTBEAT);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            log.warn("Could not stamp the read replica heartbeat on the primary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the lag of the replica in milliseconds, or -1 if it cannot be read.
+     */
+    private long readLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            try (ResultSet resultSet = statement.executeQuery(READ_LAG)) {
+                return resultSet.next() ? Math.max(0, resultSet.getLong(1)) : -1;
+            }
+        } catch (SQLException e) {
+            log.debug("Could not read the heartbeat of read replica {}: {}", replica.name, e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean usable;
+
+        private volatile long lagMs = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.groupeisi.config.liquibase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Liquibase task filling {@code search_history.day_of_week_code} from {@code day_of_week}, in chunks of ids.
+ * <p>
+ * Each chunk is committed on its own, so only the rows of the current chunk are locked and the table stays writable.
+ * Rows whose weekday is not a valid name get the weekday of their date.
+ */
+public class SearchHistoryDayOfWeekBackfill implements CustomTaskChange {
+
+    static final int CHUNK_SIZE = 10000;
+
+    private static final String UPDATE =
+        "UPDATE search_history SET day_of_week_code = CASE day_of_week" +
+        " WHEN 'MONDAY' THEN 1 WHEN 'TUESDAY' THEN 2 WHEN 'WEDNESDAY' THEN 3 WHEN 'THURSDAY' THEN 4" +
+        " WHEN 'FRIDAY' THEN 5 WHEN 'SATURDAY' THEN 6 WHEN 'SUNDAY' THEN 7" +
+        " ELSE WEEKDAY(searched_date) + 1 END" +
+        " WHERE id >= ? AND id < ? AND day_of_week_code IS NULL";
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryDayOfWeekBackfill.class);
+
+    private long updated;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            long minId;
+            long maxId;
+            try (Statement statement = connection.createStatement(); ResultSet bounds = statement.executeQuery("SELECT MIN(id), MAX(id) FROM search_history")) {
+                bounds.next();
+                minId = bounds.getLong(1);
+                maxId = bounds.getLong(2);
+                if (bounds.wasNull()) {
+                    return;
+                }
+            }
+            try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                for (long from = minId; from <= maxId; from += CHUNK_SIZE) {
+                    update.setLong(1, from);
+                    update.setLong(2, from + CHUNK_SIZE);
+                    updated += update.executeUpdate();
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                    log.debug("Backfilled search_history.day_of_week_code up to id {}", from + CHUNK_SIZE - 1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Could not backfill search_history.day_of_week_code", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Backfilled search_history.day_of_week_code for " + updated + " rows";
+    }
+
+    @Override
+    public void setUp() {
+        // Nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // No resource needed
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
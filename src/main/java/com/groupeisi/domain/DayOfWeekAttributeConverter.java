@@ -0,0 +1,27 @@
+package com.groupeisi.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.time.DayOfWeek;
+
+/**
+ * Store a weekday name, as returned by {@link DayOfWeek#name()}, as its ISO number: {@code 1} for Monday to
+ * {@code 7} for Sunday. A {@code TINYINT} takes a single byte, where the name took up to ten in a {@code varchar}.
+ */
+@Converter
+public class DayOfWeekAttributeConverter implements AttributeConverter<String, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(String dayOfWeek) {
+        if (dayOfWeek == null) {
+            return null;
+        }
+        // valueOf rejects anything that is not a weekday name with an IllegalArgumentException
+        return (byte) DayOfWeek.valueOf(dayOfWeek).getValue();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Byte value) {
+        return value == null ? null : DayOfWeek.of(value).name();
+    }
+}
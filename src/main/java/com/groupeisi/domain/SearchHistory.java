@@ -1,27 +1,34 @@
 package com.groupeisi.domain;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Pattern;
 import java.io.Serializable;
 import java.time.LocalDate;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A SearchHistory.
  */
 @Entity
 @Table(name = "search_history")
+@EntityListeners(SearchHistoryEntityListener.class)
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class SearchHistory implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "searchHistorySequenceGenerator")
+    @SequenceGenerator(name = "searchHistorySequenceGenerator", sequenceName = "search_history_sequence", initialValue = 1500, allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
     @Column(name = "searched_date")
     private LocalDate searchedDate;
 
+    @Pattern(regexp = "MONDAY|TUESDAY|WEDNESDAY|THURSDAY|FRIDAY|SATURDAY|SUNDAY")
+    @Convert(converter = DayOfWeekAttributeConverter.class)
     @Column(name = "day_of_week")
     private String dayOfWeek;
 
@@ -0,0 +1,21 @@
+package com.groupeisi.domain;
+
+/**
+ * Application event published when a {@link SearchHistory} is created, updated or deleted.
+ * <p>
+ * It is published during the flush of the change, so listeners interested in committed changes only must be
+ * transactional event listeners.
+ *
+ * @param type the kind of change.
+ * @param searchHistory a copy of the searchHistory, as written.
+ */
+public record SearchHistoryChangedEvent(Type type, SearchHistory searchHistory) {
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+}
@@ -0,0 +1,44 @@
+package com.groupeisi.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener publishing a {@link SearchHistoryChangedEvent} for every {@link SearchHistory} written through
+ * the persistence context. Writes of stateless sessions and bulk statements are not seen.
+ * <p>
+ * It is instantiated by Hibernate through the Spring bean container, which injects its dependencies.
+ */
+public class SearchHistoryEntityListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public SearchHistoryEntityListener(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @PostPersist
+    public void onCreated(SearchHistory searchHistory) {
+        publish(SearchHistoryChangedEvent.Type.CREATED, searchHistory);
+    }
+
+    @PostUpdate
+    public void onUpdated(SearchHistory searchHistory) {
+        publish(SearchHistoryChangedEvent.Type.UPDATED, searchHistory);
+    }
+
+    @PostRemove
+    public void onDeleted(SearchHistory searchHistory) {
+        publish(SearchHistoryChangedEvent.Type.DELETED, searchHistory);
+    }
+
+    private void publish(SearchHistoryChangedEvent.Type type, SearchHistory searchHistory) {
+        SearchHistory copy = new SearchHistory()
+            .id(searchHistory.getId())
+            .searchedDate(searchHistory.getSearchedDate())
+            .dayOfWeek(searchHistory.getDayOfWeek());
+        applicationEventPublisher.publishEvent(new SearchHistoryChangedEvent(type, copy));
+    }
+}
@@ -0,0 +1,44 @@
+package com.groupeisi.management;
+
+import com.groupeisi.service.SearchHistoryPartitionService;
+import com.groupeisi.service.dto.SearchHistoryPartitionDTO;
+import java.time.YearMonth;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint exposing the partitions of the search history, at {@code /management/searchhistorypartitions}.
+ */
+@Component
+@Endpoint(id = "searchhistorypartitions")
+public class SearchHistoryPartitionsEndpoint {
+
+    private final SearchHistoryPartitionService searchHistoryPartitionService;
+
+    public SearchHistoryPartitionsEndpoint(SearchHistoryPartitionService searchHistoryPartitionService) {
+        this.searchHistoryPartitionService = searchHistoryPartitionService;
+    }
+
+    /**
+     * {@code GET  /management/searchhistorypartitions} : get the partitions, with their estimated size.
+     *
+     * @return the partitions, in order.
+     */
+    @ReadOperation
+    public List<SearchHistoryPartitionDTO> partitions() {
+        return searchHistoryPartitionService.getPartitions();
+    }
+
+    /**
+     * {@code POST  /management/searchhistorypartitions} : run the partition maintenance now.
+     *
+     * @return the partitions after the maintenance.
+     */
+    @WriteOperation
+    public List<SearchHistoryPartitionDTO> maintain() {
+        return searchHistoryPartitionService.maintain(YearMonth.now());
+    }
+}
@@ -1,9 +1,27 @@
 package com.groupeisi.repository;
 
 import com.groupeisi.domain.Authority;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Spring Data JPA repository for the {@link Authority} entity.
  */
-public interface AuthorityRepository extends JpaRepository<Authority, String> {}
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+    /**
+     * Second level cache region of the cacheable authority queries.
+     */
+    String AUTHORITY_QUERIES_CACHE = "authorityQueries";
+
+    @Override
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = AUTHORITY_QUERIES_CACHE)
+        }
+    )
+    List<Authority> findAll();
+}
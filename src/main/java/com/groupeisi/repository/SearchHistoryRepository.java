@@ -1,6 +1,14 @@
 package com.groupeisi.repository;
 
 import com.groupeisi.domain.SearchHistory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +17,80 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Long> {}
+public interface SearchHistoryRepository extends JpaRepository<SearchHistory, Long>, JpaSpecificationExecutor<SearchHistory> {
+    /**
+     * Fetch size of the streaming queries: Connector/J streams the rows of a statement of fetch size
+     * {@link Integer#MIN_VALUE} one at a time instead of buffering the whole result set. Only the statements carrying it
+     * are streamed, and their connection cannot run another statement until the stream is closed.
+     */
+    String STREAM_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    /**
+     * Get a searchHistory and lock its row until the end of the transaction, with a single {@code SELECT ... FOR UPDATE}.
+     * <p>
+     * Changes to the returned entity are written by dirty checking, without the extra select of a merge.
+     *
+     * @param id the id of the searchHistory.
+     * @return the locked searchHistory, if any.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SearchHistory> findOneWithLockById(Long id);
+
+    /**
+     * Stream all the searchHistories in id order, reading them one row at a time from the server.
+     * <p>
+     * The second level cache is neither read nor filled, so that a full scan does not evict the entries of the lookups.
+     * Must be called in a transaction, and the stream must be closed.
+     *
+     * @return the stream of read-only searchHistories.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+        }
+    )
+    @Query("select searchHistory from SearchHistory searchHistory order by searchHistory.id")
+    Stream<SearchHistory> streamAllByOrderById();
+
+    /**
+     * Count the searches of a date range, read from the {@code idx_search_history_searched_date} index only.
+     * <p>
+     * The result is not cached: the recorder writes to the search history every second under load, and any write would
+     * invalidate it.
+     *
+     * @param from the first date, inclusive.
+     * @param to the last date, inclusive.
+     * @return the number of searches.
+     */
+    long countBySearchedDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Count the searches of a weekday in a date range, read from the {@code idx_search_history_day_of_week_searched_date}
+     * index only. The result is not cached, like the one of {@link #countBySearchedDateBetween}.
+     *
+     * @param dayOfWeek the weekday.
+     * @param from the first date, inclusive.
+     * @param to the last date, inclusive.
+     * @return the number of searches.
+     */
+    long countByDayOfWeekAndSearchedDateBetween(String dayOfWeek, LocalDate from, LocalDate to);
+
+    /**
+     * Get the searches of a weekday in a date range, by date. Every column of the table is part of the
+     * {@code idx_search_history_day_of_week_searched_date} index, which serves the rows already sorted.
+     *
+     * @param dayOfWeek the weekday.
+     * @param from the first date, inclusive.
+     * @param to the last date, inclusive.
+     * @param pageable the pagination information.
+     * @return the slice of searches.
+     */
+    Slice<SearchHistory> findByDayOfWeekAndSearchedDateBetweenOrderBySearchedDateAscIdAsc(
+        String dayOfWeek,
+        LocalDate from,
+        LocalDate to,
+        Pageable pageable
+    );
+}
@@ -2,12 +2,17 @@ package com.groupeisi.repository;
 
 import com.groupeisi.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,19 +23,185 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    String USER_COUNTS_CACHE = "userCounts";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
-    Optional<User> findOneByEmailIgnoreCase(String email);
+
+    /**
+     * Get a user by email. Emails are stored in lower case, so that the unique index on the column serves the lookup.
+     *
+     * @param email the email, in lower case.
+     * @return the user.
+     */
+    Optional<User> findOneByEmail(String email);
+
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
     @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    /**
+     * Get a user by email, with the authorities.
+     *
+     * @param email the email, in lower case.
+     * @return the user.
+     */
     @EntityGraph(attributePaths = "authorities")
     @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
-    Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
+    Optional<User> findOneWithAuthoritiesByEmail(String email);
+
+    /**
+     * Get a page of user ids, the first phase of a page of users with their authorities: the collection cannot be
+     * fetched by a paginated query.
+     *
+     * @param pageable the pagination information.
+     * @return the page of ids.
+     */
+    @Query(value = "select user.id from User user", countQuery = "select count(user) from User user")
+    Page<Long> findAllIds(Pageable pageable);
+
+    /**
+     * Get users with their authorities, fetched by the same query.
+     *
+     * @param ids the ids of the users.
+     * @return the users, in no particular order.
+     */
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
+    /**
+     * Get the next users who did not activate their account in time, selected into {@link IdLoginAndEmail} records
+     * without loading the entities.
+     *
+     * @param dateTime the date the users were created before.
+     * @param id the id the users come after, to read them by keyset pagination.
+     * @param pageable the number of users to get, sorted by id.
+     * @return the users.
+     */
+    List<IdLoginAndEmail> findIdLoginAndEmailByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBeforeAndIdGreaterThan(
+        Instant dateTime,
+        Long id,
+        Pageable pageable
+    );
+
+    /**
+     * Get which of the given logins are taken.
+     *
+     * @param logins the logins, in lower case.
+     * @return the logins already used by a user.
+     */
+    @Query("select user.login from User user where user.login in :logins")
+    Set<String> findAllLoginsByLoginIn(@Param("logins") Collection<String> logins);
+
+    /**
+     * Get which of the given emails are taken.
+     *
+     * @param emails the emails.
+     * @return the emails already used by a user, as stored.
+     */
+    @Query("select user.email from User user where user.email in :emails")
+    Set<String> findAllEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Get the users with the given logins, selected into {@link IdLoginAndEmail} records without loading the entities.
+     *
+     * @param logins the logins, in lower case.
+     * @return the users found.
+     */
+    List<IdLoginAndEmail> findIdLoginAndEmailByLoginIn(Collection<String> logins);
+
+    /**
+     * Activate users, with a single statement. Their activation key is cleared as by an activation of their registration,
+     * so that they are no longer purged if they are deactivated later.
+     *
+     * @param modifiedBy the login of the current user.
+     * @param modifiedDate the date of the modification.
+     * @param ids the ids of the users.
+     * @return the number of users updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update User user set user.activated = true, user.activationKey = null," +
+        " user.lastModifiedBy = :modifiedBy, user.lastModifiedDate = :modifiedDate where user.id in :ids"
+    )
+    int activateByIdIn(
+        @Param("modifiedBy") String modifiedBy,
+        @Param("modifiedDate") Instant modifiedDate,
+        @Param("ids") Collection<Long> ids
+    );
+
+    /**
+     * Deactivate users, with a single statement.
+     *
+     * @param modifiedBy the login of the current user.
+     * @param modifiedDate the date of the modification.
+     * @param ids the ids of the users.
+     * @return the number of users updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update User user set user.activated = false, user.lastModifiedBy = :modifiedBy, user.lastModifiedDate = :modifiedDate" +
+        " where user.id in :ids"
+    )
+    int deactivateByIdIn(
+        @Param("modifiedBy") String modifiedBy,
+        @Param("modifiedDate") Instant modifiedDate,
+        @Param("ids") Collection<Long> ids
+    );
+
+    /**
+     * Record the modification of users, whose authorities are changed with SQL statements.
+     *
+     * @param modifiedBy the login of the current user.
+     * @param modifiedDate the date of the modification.
+     * @param ids the ids of the users.
+     * @return the number of users updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User user set user.lastModifiedBy = :modifiedBy, user.lastModifiedDate = :modifiedDate where user.id in :ids")
+    int updateLastModifiedByIdIn(
+        @Param("modifiedBy") String modifiedBy,
+        @Param("modifiedDate") Instant modifiedDate,
+        @Param("ids") Collection<Long> ids
+    );
+
+    /**
+     * Get the ids and logins of the activated users, selected into {@link IdAndLogin} records without loading the entities.
+     *
+     * @param pageable the pagination information.
+     * @return the page of ids and logins.
+     */
+    Page<IdAndLogin> findIdAndLoginByActivatedIsTrue(Pageable pageable);
+
+    /**
+     * Count all the users. The count is cached for a while without being evicted by the changes, so it is approximate.
+     *
+     * @return the number of users.
+     */
+    @Cacheable(cacheNames = USER_COUNTS_CACHE, key = "'all'")
+    @Query("select count(user) from User user")
+    long countAllCached();
+
+    /**
+     * Count the activated users. The count is cached for a while without being evicted by the changes, so it is
+     * approximate.
+     *
+     * @return the number of activated users.
+     */
+    @Cacheable(cacheNames = USER_COUNTS_CACHE, key = "'activated'")
+    @Query("select count(user) from User user where user.activated = true")
+    long countActivatedCached();
+
+    /**
+     * Id and login of a user.
+     */
+    record IdAndLogin(Long id, String login) {}
 
-    Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+    /**
+     * Id, login and email of a user, the keys to evict it from the caches.
+     */
+    record IdLoginAndEmail(Long id, String login, String email) {}
 }
@@ -0,0 +1,99 @@
+package com.groupeisi.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free, multi-producer single-consumer queue of primitive {@code long} values.
+ * <p>
+ * This is Dmitry Vyukov's bounded queue: each slot carries a sequence number telling producers and the consumer
+ * whether it is free or published, so neither side ever blocks and values are not boxed.
+ */
+final class BoundedLongQueue {
+
+    private final int mask;
+
+    private final long[] values;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity the minimal capacity of the queue, rounded up to the next power of two.
+     */
+    BoundedLongQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.values = new long[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add a value to the queue, from any thread.
+     *
+     * @param value the value to add.
+     * @return {@code false} if the queue is full.
+     */
+    boolean offer(long value) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    values[index] = value;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Move the published values to an array, from the single consumer thread.
+     *
+     * @param destination the array receiving the values, from index {@code 0}.
+     * @param maxElements the maximum number of values to move.
+     * @return the number of values moved.
+     */
+    int drainTo(long[] destination, int maxElements) {
+        long position = head.get();
+        int count = 0;
+        while (count < maxElements) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            destination[count++] = values[index];
+            sequences.set(index, position + mask + 1);
+            position++;
+        }
+        head.lazySet(position);
+        return count;
+    }
+
+    /**
+     * @return the approximate number of values in the queue.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * @return the capacity of the queue.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.groupeisi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of pre-encoded day finder responses, keyed by epoch day.
+ * <p>
+ * The cache is direct-mapped: each epoch day has a single slot, so lookups are lock-free and the memory is bounded.
+ * With {@value #SIZE} slots, any window of about 44 consecutive years is cached without collisions.
+ */
+@Service
+public class DayFinderResponseCache {
+
+    static final int SIZE = 1 << 14;
+
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(SIZE);
+
+    /**
+     * Get the response of an epoch day, encoding it on a cache miss.
+     *
+     * @param epochDay the epoch day, between {@link DayOfWeekCodec#MIN_EPOCH_DAY} and {@link DayOfWeekCodec#MAX_EPOCH_DAY}.
+     * @return the cached response.
+     */
+    public Entry get(long epochDay) {
+        int slot = (int) (epochDay & (SIZE - 1));
+        Entry entry = entries.get(slot);
+        if (entry == null || entry.epochDay() != epochDay) {
+            entry = new Entry(epochDay, DayOfWeekCodec.encode(epochDay), eTag(epochDay));
+            entries.lazySet(slot, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Build the strong entity tag of a date, which is the {@code dd-MM-yyyy} date itself.
+     *
+     * @param epochDay the epoch day.
+     * @return the quoted entity tag.
+     */
+    private static String eTag(long epochDay) {
+        byte[] tag = new byte[DayOfWeekCodec.DATE_LENGTH + 2];
+        tag[0] = '"';
+        DayOfWeekCodec.writeDate(epochDay, (byte) '-', tag, 1);
+        tag[tag.length - 1] = '"';
+        return new String(tag, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Check whether an {@code If-None-Match} header matches the entity tag of a requested date, without parsing the date.
+     * <p>
+     * Weak tags are matched too, as required for {@code If-None-Match}.
+     *
+     * @param ifNoneMatch the header value, may be {@code null}.
+     * @param date the requested date, as sent by the client.
+     * @return {@code true} if the client already holds the response.
+     */
+    public static boolean matchesETag(String ifNoneMatch, String date) {
+        if (ifNoneMatch == null || date == null || date.length() != DayOfWeekCodec.DATE_LENGTH) {
+            return false;
+        }
+        if (ifNoneMatch.length() == 1 && ifNoneMatch.charAt(0) == '*') {
+            return true;
+        }
+        int index = ifNoneMatch.indexOf(date);
+        while (index > 0) {
+            int end = index + date.length();
+            if (ifNoneMatch.charAt(index - 1) == '"' && end < ifNoneMatch.length() && ifNoneMatch.charAt(end) == '"') {
+                return true;
+            }
+            index = ifNoneMatch.indexOf(date, end);
+        }
+        return false;
+    }
+
+    /**
+     * A pre-encoded response.
+     *
+     * @param epochDay the epoch day of the response.
+     * @param body the encoded body, which must not be modified.
+     * @param eTag the quoted strong entity tag of the response.
+     */
+    public record Entry(long epochDay, byte[] body, String eTag) {}
+}
@@ -0,0 +1,254 @@
+package com.groupeisi.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming day finder for bulk lookups.
+ * <p>
+ * Dates are read from a JSON array ({@code ["03-04-2024","04-04-2024"]}) or an NDJSON stream (one JSON string, or
+ * bare date, per line) and resolved one at a time through {@link DayOfWeekCodec}. Results are written back in the same
+ * order through fixed-size buffers, so memory does not depend on the number of dates.
+ */
+public final class DayFinderStreams {
+
+    /**
+     * Layout of the streamed results.
+     */
+    public enum Format {
+        /**
+         * A single JSON array of results.
+         */
+        JSON_ARRAY,
+        /**
+         * One JSON result per line.
+         */
+        NDJSON,
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Longest token kept in memory: anything longer cannot be a date and is only counted as invalid.
+     */
+    private static final int MAX_TOKEN_LENGTH = 32;
+
+    private static final byte[] INVALID_PREFIX = "{\"index\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] INVALID_SUFFIX = ",\"error\":\"Invalid date, expected dd-MM-yyyy\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAX_ITEM_LENGTH = Math.max(DayOfWeekCodec.MAX_ENCODED_LENGTH, INVALID_PREFIX.length + 20 + INVALID_SUFFIX.length) + 2;
+
+    private DayFinderStreams() {}
+
+    /**
+     * Resolve every date read from {@code in} and write the results to {@code out}.
+     * <p>
+     * Each input date produces exactly one result, either {@code {"date":"dd/MM/yyyy","dayOfWeek":"MONDAY"}} or
+     * {@code {"index":3,"error":"..."}} when the date at this zero-based position is not valid.
+     *
+     * @param in the dates, as a JSON array or an NDJSON stream.
+     * @param out the destination of the results; it is flushed but not closed.
+     * @param format the layout of the results.
+     * @return the number of dates read.
+     * @throws IOException if reading or writing fails.
+     */
+    public static long resolve(InputStream in, OutputStream out, Format format) throws IOException {
+        ResultWriter writer = new ResultWriter(out, format);
+        new DateTokenizer(writer).consume(in);
+        writer.finish();
+        return writer.count;
+    }
+
+    /**
+     * Write the result of every date between two epoch days to {@code out}, generating them one at a time.
+     *
+     * @param fromEpochDay the first epoch day, inclusive, not before {@link DayOfWeekCodec#MIN_EPOCH_DAY}.
+     * @param toEpochDay the last epoch day, inclusive, not after {@link DayOfWeekCodec#MAX_EPOCH_DAY}.
+     * @param out the destination of the results; it is flushed but not closed.
+     * @param format the layout of the results.
+     * @return the number of dates written.
+     * @throws IOException if writing fails.
+     */
+    public static long writeRange(long fromEpochDay, long toEpochDay, OutputStream out, Format format) throws IOException {
+        ResultWriter writer = new ResultWriter(out, format);
+        for (long epochDay = fromEpochDay; epochDay <= toEpochDay; epochDay++) {
+            writer.write(epochDay);
+        }
+        writer.finish();
+        return writer.count;
+    }
+
+    /**
+     * Split the input into date tokens, ignoring JSON array punctuation and whitespace between them.
+     */
+    private static final class DateTokenizer {
+
+        private final ResultWriter writer;
+
+        private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+
+        private int tokenLength;
+
+        private boolean inToken;
+
+        private boolean quoted;
+
+        private boolean escaped;
+
+        private boolean invalid;
+
+        private DateTokenizer(ResultWriter writer) {
+            this.writer = writer;
+        }
+
+        private void consume(InputStream in) throws IOException {
+            byte[] input = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(input)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    accept(input[i]);
+                }
+            }
+            if (inToken) {
+                // an unterminated string is reported rather than silently dropped
+                invalid |= quoted;
+                emit();
+            }
+        }
+
+        private void accept(byte b) throws IOException {
+            if (quoted) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    // dates never contain escapes
+                    escaped = true;
+                    invalid = true;
+                } else if (b == '"') {
+                    emit();
+                } else {
+                    append(b);
+                }
+            } else if (inToken) {
+                if (isSeparator(b)) {
+                    emit();
+                } else {
+                    append(b);
+                }
+            } else if (b == '"') {
+                start();
+                quoted = true;
+            } else if (!isSeparator(b)) {
+                start();
+                append(b);
+            }
+        }
+
+        private void start() {
+            inToken = true;
+            quoted = false;
+            escaped = false;
+            invalid = false;
+            tokenLength = 0;
+        }
+
+        private void append(byte b) {
+            if (tokenLength == MAX_TOKEN_LENGTH) {
+                invalid = true;
+            } else {
+                token[tokenLength++] = b;
+            }
+        }
+
+        private void emit() throws IOException {
+            long epochDay = invalid ? DayOfWeekCodec.INVALID : DayOfWeekCodec.parseEpochDay(token, 0, tokenLength);
+            writer.write(epochDay);
+            inToken = false;
+            quoted = false;
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == ',' || b == '[' || b == ']';
+        }
+    }
+
+    /**
+     * Buffer the encoded results, flushing them to the output as the buffer fills up.
+     */
+    private static final class ResultWriter {
+
+        private final OutputStream out;
+
+        private final Format format;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private int position;
+
+        private long count;
+
+        private ResultWriter(OutputStream out, Format format) {
+            this.out = out;
+            this.format = format;
+            if (format == Format.JSON_ARRAY) {
+                buffer[position++] = '[';
+            }
+        }
+
+        private void write(long epochDay) throws IOException {
+            if (position + MAX_ITEM_LENGTH > buffer.length) {
+                drain();
+            }
+            if (format == Format.JSON_ARRAY && count > 0) {
+                buffer[position++] = ',';
+            }
+            if (epochDay == DayOfWeekCodec.INVALID) {
+                position = put(INVALID_PREFIX, position);
+                position = putLong(count, position);
+                position = put(INVALID_SUFFIX, position);
+            } else {
+                position = DayOfWeekCodec.encode(epochDay, buffer, position);
+            }
+            if (format == Format.NDJSON) {
+                buffer[position++] = '\n';
+            }
+            count++;
+        }
+
+        private void finish() throws IOException {
+            if (format == Format.JSON_ARRAY) {
+                if (position == buffer.length) {
+                    drain();
+                }
+                buffer[position++] = ']';
+            }
+            drain();
+            out.flush();
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+
+        private int put(byte[] source, int offset) {
+            System.arraycopy(source, 0, buffer, offset, source.length);
+            return offset + source.length;
+        }
+
+        private int putLong(long value, int offset) {
+            int length = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                length++;
+            }
+            for (int i = offset + length - 1; i >= offset; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            return offset + length;
+        }
+    }
+}
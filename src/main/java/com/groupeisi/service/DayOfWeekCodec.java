@@ -0,0 +1,266 @@
+package com.groupeisi.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free parser and encoder used by the calendar day finder.
+ * <p>
+ * Dates are read as {@code dd-MM-yyyy} straight from their digits and the weekday is derived from the
+ * epoch day, so the lookup never goes through {@link java.time.format.DateTimeFormatter} nor throws on bad input.
+ * Encoded responses always have the shape {@code {"date":"dd/MM/yyyy","dayOfWeek":"MONDAY"}}.
+ */
+public final class DayOfWeekCodec {
+
+    /**
+     * Returned by the parse methods when the input is not a valid {@code dd-MM-yyyy} date.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * Length of a {@code dd-MM-yyyy} date.
+     */
+    public static final int DATE_LENGTH = 10;
+
+    /**
+     * Epoch day of {@code 0001-01-01}, the first date accepted by the codec.
+     */
+    public static final long MIN_EPOCH_DAY = -719162L;
+
+    /**
+     * Epoch day of {@code 9999-12-31}, the last date accepted by the codec.
+     */
+    public static final long MAX_EPOCH_DAY = 2932896L;
+
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    private static final byte[][] DAY_NAMES = {
+        ascii("MONDAY"),
+        ascii("TUESDAY"),
+        ascii("WEDNESDAY"),
+        ascii("THURSDAY"),
+        ascii("FRIDAY"),
+        ascii("SATURDAY"),
+        ascii("SUNDAY"),
+    };
+
+    private static final byte[] DATE_PREFIX = ascii("{\"date\":\"");
+
+    private static final byte[] DAY_OF_WEEK_PREFIX = ascii("\",\"dayOfWeek\":\"");
+
+    private static final byte[] SUFFIX = ascii("\"}");
+
+    /**
+     * Upper bound of an encoded response, reached for {@code WEDNESDAY}.
+     */
+    public static final int MAX_ENCODED_LENGTH = DATE_PREFIX.length + DATE_LENGTH + DAY_OF_WEEK_PREFIX.length + 9 + SUFFIX.length;
+
+    private DayOfWeekCodec() {}
+
+    /**
+     * Parse a {@code dd-MM-yyyy} date into its epoch day.
+     *
+     * @param text the date to parse.
+     * @return the epoch day, or {@link #INVALID} if the text is not a valid date.
+     */
+    public static long parseEpochDay(CharSequence text) {
+        if (text == null || text.length() != DATE_LENGTH || text.charAt(2) != '-' || text.charAt(5) != '-') {
+            return INVALID;
+        }
+        int day = digits(text, 0, 2);
+        int month = digits(text, 3, 5);
+        int year = digits(text, 6, 10);
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Parse a {@code dd-MM-yyyy} date held as ASCII bytes into its epoch day.
+     *
+     * @param bytes the buffer holding the date.
+     * @param offset the index of the first character of the date.
+     * @param length the number of bytes of the date.
+     * @return the epoch day, or {@link #INVALID} if the bytes are not a valid date.
+     */
+    public static long parseEpochDay(byte[] bytes, int offset, int length) {
+        if (length != DATE_LENGTH || bytes[offset + 2] != '-' || bytes[offset + 5] != '-') {
+            return INVALID;
+        }
+        int day = digits(bytes, offset, offset + 2);
+        int month = digits(bytes, offset + 3, offset + 5);
+        int year = digits(bytes, offset + 6, offset + 10);
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Get the weekday of an epoch day.
+     *
+     * @param epochDay the epoch day.
+     * @return the ISO weekday index, from {@code 0} for Monday to {@code 6} for Sunday.
+     */
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    /**
+     * Count the occurrences of each weekday between two epoch days, in constant time.
+     *
+     * @param fromEpochDay the first epoch day, inclusive.
+     * @param toEpochDay the last epoch day, inclusive, not before {@code fromEpochDay}.
+     * @return the number of days of the range falling on each ISO weekday, indexed from {@code 0} for Monday.
+     */
+    public static long[] countDaysOfWeek(long fromEpochDay, long toEpochDay) {
+        long days = toEpochDay - fromEpochDay + 1;
+        long fullWeeks = days / 7;
+        int remainder = (int) (days % 7);
+        int firstDayOfWeek = dayOfWeek(fromEpochDay);
+        long[] counts = new long[7];
+        for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+            // the remainder days are the ones following the first day of the range
+            counts[dayOfWeek] = fullWeeks + (Math.floorMod(dayOfWeek - firstDayOfWeek, 7) < remainder ? 1 : 0);
+        }
+        return counts;
+    }
+
+    /**
+     * Get the upper case English name of a weekday, as returned by {@link java.time.DayOfWeek#toString()}.
+     *
+     * @param dayOfWeek the ISO weekday index, from {@code 0} for Monday to {@code 6} for Sunday.
+     * @return the ASCII bytes of the name, which must not be modified.
+     */
+    public static byte[] dayName(int dayOfWeek) {
+        return DAY_NAMES[dayOfWeek];
+    }
+
+    /**
+     * Encode the day finder response of an epoch day.
+     *
+     * @param epochDay the epoch day, between {@link #MIN_EPOCH_DAY} and {@link #MAX_EPOCH_DAY}.
+     * @param buffer the destination, with at least {@link #MAX_ENCODED_LENGTH} bytes available from {@code offset}.
+     * @param offset the index at which the response is written.
+     * @return the index following the last written byte.
+     */
+    public static int encode(long epochDay, byte[] buffer, int offset) {
+        int position = put(DATE_PREFIX, buffer, offset);
+        position = writeDate(epochDay, (byte) '/', buffer, position);
+        position = put(DAY_OF_WEEK_PREFIX, buffer, position);
+        position = put(DAY_NAMES[dayOfWeek(epochDay)], buffer, position);
+        return put(SUFFIX, buffer, position);
+    }
+
+    /**
+     * Encode the day finder response of an epoch day into a new array.
+     *
+     * @param epochDay the epoch day, between {@link #MIN_EPOCH_DAY} and {@link #MAX_EPOCH_DAY}.
+     * @return the encoded response.
+     */
+    public static byte[] encode(long epochDay) {
+        byte[] buffer = new byte[MAX_ENCODED_LENGTH];
+        int length = encode(epochDay, buffer, 0);
+        byte[] encoded = new byte[length];
+        System.arraycopy(buffer, 0, encoded, 0, length);
+        return encoded;
+    }
+
+    /**
+     * Write an epoch day as {@code dd?MM?yyyy}, where {@code ?} is the given separator.
+     *
+     * @param epochDay the epoch day, between {@link #MIN_EPOCH_DAY} and {@link #MAX_EPOCH_DAY}.
+     * @param separator the separator written between the day, month and year.
+     * @param buffer the destination, with at least {@link #DATE_LENGTH} bytes available from {@code offset}.
+     * @param offset the index at which the date is written.
+     * @return the index following the last written byte.
+     */
+    public static int writeDate(long epochDay, byte separator, byte[] buffer, int offset) {
+        // Civil-from-days conversion, see https://howardhinnant.github.io/date_algorithms.html
+        long z = epochDay + DAYS_0000_TO_1970 - 60;
+        long era = Math.floorDiv(z, 146097L);
+        long dayOfEra = z - era * 146097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        buffer[offset] = (byte) ('0' + day / 10);
+        buffer[offset + 1] = (byte) ('0' + day % 10);
+        buffer[offset + 2] = separator;
+        buffer[offset + 3] = (byte) ('0' + month / 10);
+        buffer[offset + 4] = (byte) ('0' + month % 10);
+        buffer[offset + 5] = separator;
+        buffer[offset + 6] = (byte) ('0' + year / 1000);
+        buffer[offset + 7] = (byte) ('0' + (year / 100) % 10);
+        buffer[offset + 8] = (byte) ('0' + (year / 10) % 10);
+        buffer[offset + 9] = (byte) ('0' + year % 10);
+        return offset + DATE_LENGTH;
+    }
+
+    /**
+     * Convert a date into its epoch day, validating every field.
+     *
+     * @param year the year, from 1 to 9999.
+     * @param month the month, from 1 to 12.
+     * @param day the day of month.
+     * @return the epoch day, or {@link #INVALID} if the fields do not make a valid date.
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        // Same computation as LocalDate.toEpochDay(), restricted to positive years
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int digits(byte[] bytes, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int put(byte[] source, byte[] buffer, int offset) {
+        System.arraycopy(source, 0, buffer, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,14 @@
+package com.groupeisi.service;
+
+/**
+ * Thrown when a continuation token of a cursor listing cannot be followed: it is malformed, or was issued for another
+ * sort than the one requested.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
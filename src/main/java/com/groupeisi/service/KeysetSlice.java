@@ -0,0 +1,30 @@
+package com.groupeisi.service;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * A {@link org.springframework.data.domain.Slice} read by keyset pagination: the next slice is read after the sort key
+ * of the last element of this one, which the continuation token carries, instead of at an offset.
+ *
+ * @param <T> the type of the elements.
+ */
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String nextCursor;
+
+    public KeysetSlice(List<T> content, Pageable pageable, String nextCursor) {
+        super(content, pageable, nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the opaque continuation token of the next slice, {@code null} for the last slice.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
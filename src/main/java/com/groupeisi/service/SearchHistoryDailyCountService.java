@@ -0,0 +1,204 @@
+package com.groupeisi.service;
+
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.service.dto.SearchHistoryDailyCountDTO;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@code search_history_daily_count} table, which holds the number of lookups of each date.
+ * <p>
+ * Lookups are counted in memory, in one {@link LongAdder} per date, so that concurrent requests never contend on a
+ * lock nor on a database row. The counts are periodically added to the table with batched
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} statements, in date order, so the table lags behind by at most one flush
+ * interval.
+ * <p>
+ * Only the lookups recorded by the {@link SearchHistoryRecorder} and the rows committed by the
+ * {@link SearchHistoryImporter} are counted. The searchHistories created or deleted one at a time, and the partitions
+ * dropped by the {@link SearchHistoryPartitionService}, are not reflected: the counts outlive the retention of the
+ * search history.
+ */
+@Service
+public class SearchHistoryDailyCountService {
+
+    /**
+     * Upsert with a row alias: the {@code VALUES()} function of {@code ON DUPLICATE KEY UPDATE} is deprecated since MySQL
+     * 8.0.20, and warns on every statement.
+     */
+    private static final String UPSERT =
+        "INSERT INTO search_history_daily_count (searched_date, hits) VALUES (?, ?) AS new" +
+        " ON DUPLICATE KEY UPDATE hits = search_history_daily_count.hits + new.hits";
+
+    private static final RowMapper<SearchHistoryDailyCountDTO> ROW_MAPPER = (resultSet, rowNum) ->
+        new SearchHistoryDailyCountDTO(resultSet.getObject(1, LocalDate.class), resultSet.getLong(2));
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryDailyCountService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.SearchHistoryDailyCount properties;
+
+    private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Counters removed by the previous flush: a caller may have got one just before its removal, so it is read once more.
+     */
+    private List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+
+    public SearchHistoryDailyCountService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getSearchHistoryDailyCount();
+    }
+
+    /**
+     * Count a lookup, without waiting for it to be written.
+     *
+     * @param epochDay the epoch day that was looked up.
+     */
+    public void increment(long epochDay) {
+        add(epochDay, 1);
+    }
+
+    /**
+     * Count several lookups of the same date, without waiting for them to be written.
+     *
+     * @param epochDay the epoch day that was looked up.
+     * @param hits the number of lookups.
+     */
+    public void add(long epochDay, long hits) {
+        LongAdder counter = counters.get(epochDay);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(epochDay, key -> new LongAdder());
+        }
+        counter.add(hits);
+    }
+
+    /**
+     * Write the pending counts.
+     * <p>
+     * This is scheduled to get fired every 5 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${application.search-history-daily-count.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.error("Could not write the search history daily counts", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduledFlush();
+    }
+
+    /**
+     * Add every pending count to the table now, from the calling thread.
+     * <p>
+     * Counts that could not be written stay pending.
+     *
+     * @return the number of dates written.
+     */
+    public synchronized int flush() {
+        TreeMap<Long, Long> pending = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            collect(pending, entry.getKey(), entry.getValue());
+        }
+        retired = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+            // counters of dates that were not looked up since the last flush are dropped, to bound the memory
+            if (!collect(pending, entry.getKey(), entry.getValue()) && counters.remove(entry.getKey(), entry.getValue())) {
+                retired.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), properties.getBatchSize()));
+        int written = 0;
+        for (Map.Entry<Long, Long> entry : pending.entrySet()) {
+            batch.add(new Object[] { LocalDate.ofEpochDay(entry.getKey()), entry.getValue() });
+            if (batch.size() == properties.getBatchSize()) {
+                written += write(batch, pending);
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += write(batch, pending);
+        }
+        if (written > 0) {
+            log.debug("Wrote the search history daily counts of {} dates", written);
+        }
+        return written;
+    }
+
+    private static boolean collect(Map<Long, Long> pending, long epochDay, LongAdder counter) {
+        long hits = counter.sumThenReset();
+        if (hits == 0) {
+            return false;
+        }
+        pending.merge(epochDay, hits, Long::sum);
+        return true;
+    }
+
+    private int write(List<Object[]> batch, TreeMap<Long, Long> pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, batch));
+        } catch (RuntimeException e) {
+            // give back the counts of this batch and of the following ones
+            pending.tailMap(((LocalDate) batch.get(0)[0]).toEpochDay()).forEach(this::add);
+            throw e;
+        }
+        int written = batch.size();
+        batch.clear();
+        return written;
+    }
+
+    /**
+     * Get the most looked up dates.
+     *
+     * @param limit the maximum number of dates.
+     * @return the dates, by decreasing number of lookups.
+     */
+    public List<SearchHistoryDailyCountDTO> findTop(int limit) {
+        return jdbcTemplate.query(
+            "SELECT searched_date, hits FROM search_history_daily_count ORDER BY hits DESC, searched_date LIMIT ?",
+            ROW_MAPPER,
+            limit
+        );
+    }
+
+    /**
+     * Get the number of lookups of each date of a range.
+     *
+     * @param from the first date, inclusive.
+     * @param to the last date, inclusive.
+     * @return the dates of the range that were looked up, in order.
+     */
+    public List<SearchHistoryDailyCountDTO> findBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT searched_date, hits FROM search_history_daily_count WHERE searched_date BETWEEN ? AND ? ORDER BY searched_date",
+            ROW_MAPPER,
+            from,
+            to
+        );
+    }
+}
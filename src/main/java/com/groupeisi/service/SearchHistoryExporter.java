@@ -0,0 +1,120 @@
+package com.groupeisi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.repository.SearchHistoryRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting the whole {@link SearchHistory} table with a constant memory footprint.
+ * <p>
+ * Rows are read through a JDBC cursor, written to the output one at a time and detached from the persistence context
+ * right away, so neither the result set nor the session grow with the size of the table.
+ */
+@Service
+public class SearchHistoryExporter {
+
+    /**
+     * Layout of the exported rows.
+     */
+    public enum Format {
+        /**
+         * One JSON object per line, with the same fields as the REST API.
+         */
+        NDJSON,
+        /**
+         * RFC 4180 comma separated values, with a header line.
+         */
+        CSV,
+    }
+
+    static final String CSV_HEADER = "id,searchedDate,dayOfWeek\r\n";
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryExporter.class);
+
+    private final SearchHistoryRepository searchHistoryRepository;
+
+    private final EntityManager entityManager;
+
+    private final JsonFactory jsonFactory = JsonFactory.builder().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+
+    public SearchHistoryExporter(SearchHistoryRepository searchHistoryRepository, EntityManager entityManager) {
+        this.searchHistoryRepository = searchHistoryRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Write all the searchHistories to {@code out}, in id order.
+     *
+     * @param out the destination of the export; it is flushed but not closed.
+     * @param format the layout of the export.
+     * @return the number of exported rows.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, Format format) throws IOException {
+        long count = 0;
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try (
+            Stream<SearchHistory> searchHistories = searchHistoryRepository.streamAllByOrderById();
+            JsonGenerator generator = jsonFactory.createGenerator(writer)
+        ) {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            Iterator<SearchHistory> iterator = searchHistories.iterator();
+            while (iterator.hasNext()) {
+                SearchHistory searchHistory = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(searchHistory, writer);
+                } else {
+                    writeJson(searchHistory, generator);
+                }
+                entityManager.detach(searchHistory);
+                count++;
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} searchHistories as {}", count, format);
+        return count;
+    }
+
+    private static void writeJson(SearchHistory searchHistory, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", searchHistory.getId());
+        if (searchHistory.getSearchedDate() == null) {
+            generator.writeNullField("searchedDate");
+        } else {
+            generator.writeStringField("searchedDate", searchHistory.getSearchedDate().toString());
+        }
+        generator.writeStringField("dayOfWeek", searchHistory.getDayOfWeek());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeCsv(SearchHistory searchHistory, Writer writer) throws IOException {
+        writer.write(String.valueOf(searchHistory.getId()));
+        writer.write(',');
+        if (searchHistory.getSearchedDate() != null) {
+            writer.write(searchHistory.getSearchedDate().toString());
+        }
+        writer.write(',');
+        // weekday names never need quoting
+        if (searchHistory.getDayOfWeek() != null) {
+            writer.write(searchHistory.getDayOfWeek());
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,279 @@
+package com.groupeisi.service;
+
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.domain.SearchHistoryChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Service fanning out the committed changes of the search history to server-sent events subscribers.
+ * <p>
+ * Every change gets an increasing event id, and the latest {@code replay-size} events are kept so that a subscriber
+ * reconnecting with its last event id gets the changes it missed, or a {@value #RESET_EVENT} event if they are gone.
+ * Each subscriber has its own bounded buffer, drained by a small pool of sender threads: committing threads never wait
+ * for a client, and a subscriber whose buffer overflows is sent an {@value #OVERFLOW_EVENT} event and disconnected.
+ */
+@Service
+public class SearchHistoryFeed {
+
+    /**
+     * Event sent when the missed changes cannot be replayed: the subscriber must read the search history again.
+     */
+    public static final String RESET_EVENT = "reset";
+
+    /**
+     * Event sent before disconnecting a subscriber that does not keep up.
+     */
+    public static final String OVERFLOW_EVENT = "overflow";
+
+    public static final String SUBSCRIBERS_METER_NAME = "search.history.feed.subscribers";
+    public static final String EVICTIONS_METER_NAME = "search.history.feed.evictions";
+
+    private static final Event HEARTBEAT = new Event(0, null, null);
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryFeed.class);
+
+    private final ApplicationProperties.SearchHistoryFeed properties;
+
+    private final Executor sender;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Counter evictionCounter;
+
+    private final Event[] replay;
+
+    /**
+     * Ids start from the startup time, so that they keep increasing across restarts.
+     */
+    private final long firstEventId = System.currentTimeMillis() * 1000;
+
+    private long lastEventId = firstEventId - 1;
+
+    @Autowired
+    public SearchHistoryFeed(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(applicationProperties, meterRegistry, senderPool(applicationProperties.getSearchHistoryFeed().getSenderThreads()));
+    }
+
+    SearchHistoryFeed(ApplicationProperties applicationProperties, MeterRegistry meterRegistry, Executor sender) {
+        this.properties = applicationProperties.getSearchHistoryFeed();
+        this.sender = sender;
+        this.replay = new Event[properties.getReplaySize()];
+        Gauge
+            .builder(SUBSCRIBERS_METER_NAME, subscribers, Set::size)
+            .description("Number of subscribers of the search history feed.")
+            .register(meterRegistry);
+        this.evictionCounter = Counter
+            .builder(EVICTIONS_METER_NAME)
+            .description("Number of subscribers of the search history feed disconnected for not keeping up.")
+            .register(meterRegistry);
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-history-feed-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(subscriber -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Publish a committed change to the subscribers.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener
+    public void onSearchHistoryChanged(SearchHistoryChangedEvent event) {
+        publish(event.type().name().toLowerCase(Locale.ROOT), event.searchHistory());
+    }
+
+    synchronized void publish(String name, Object data) {
+        Event event = new Event(++lastEventId, name, data);
+        replay[(int) (event.id() % replay.length)] = event;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Send a comment to every subscriber, so that broken connections are detected and closed.
+     * <p>
+     * This is scheduled to get fired every 15 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${application.search-history-feed.heartbeat-interval-ms:15000}")
+    public synchronized void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(HEARTBEAT)) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Subscribe to the changes.
+     *
+     * @param lastEventId the id of the last event received by the subscriber, to resume after it, or {@code null} to
+     * only get the upcoming changes.
+     * @return the emitter of the events, or nothing if there are too many subscribers already.
+     */
+    public Optional<SseEmitter> subscribe(Long lastEventId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber;
+        synchronized (this) {
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                return Optional.empty();
+            }
+            List<Event> missed = missedEvents(lastEventId);
+            subscriber = new Subscriber(emitter, properties.getBufferSize() + missed.size());
+            missed.forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return Optional.of(emitter);
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(properties.getTimeoutMs());
+    }
+
+    /**
+     * @return the number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private List<Event> missedEvents(Long since) {
+        if (since == null || since == lastEventId) {
+            return List.of();
+        }
+        long oldest = Math.max(firstEventId, lastEventId - replay.length + 1);
+        if (since < oldest - 1 || since > lastEventId) {
+            return List.of(new Event(lastEventId, RESET_EVENT, ""));
+        }
+        List<Event> events = new ArrayList<>((int) (lastEventId - since));
+        for (long id = since + 1; id <= lastEventId; id++) {
+            events.add(replay[(int) (id % replay.length)]);
+        }
+        return events;
+    }
+
+    private void evict(Subscriber subscriber) {
+        log.debug("Disconnecting a search history feed subscriber that does not keep up");
+        evictionCounter.increment();
+        remove(subscriber);
+        sender.execute(() -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(""));
+                subscriber.emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                subscriber.emitter.completeWithError(e);
+            }
+        });
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        subscriber.buffer.clear();
+    }
+
+    /**
+     * An event of the feed; heartbeats have no name.
+     */
+    private record Event(long id, String name, Object data) {
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+
+    /**
+     * A subscriber, with the events waiting to be sent to it.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+
+        private final ArrayBlockingQueue<Event> buffer;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private boolean offer(Event event) {
+            if (!buffer.offer(event)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                sender.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Event event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Could not send to a search history feed subscriber: {}", e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+                if (!closed && !buffer.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+}
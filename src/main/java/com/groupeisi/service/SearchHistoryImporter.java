@@ -0,0 +1,237 @@
+package com.groupeisi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.service.dto.SearchHistoryImportReportDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service importing search history uploads in bulk.
+ * <p>
+ * The upload is read one line at a time and each row is validated, then inserted through a Hibernate
+ * {@link StatelessSession}, in JDBC batches, with a commit every {@code commit-interval} rows. Nothing is kept per row,
+ * so memory does not depend on the size of the upload. Rows committed before a failure stay imported.
+ * <p>
+ * Stateless sessions bypass the second level cache, so the cached queries are evicted once the import ends.
+ * Committed rows are added to the daily counts of the {@link SearchHistoryDailyCountService}.
+ */
+@Service
+public class SearchHistoryImporter {
+
+    /**
+     * Layout of the imported rows.
+     */
+    public enum Format {
+        /**
+         * Comma separated values, with {@code searchedDate} and an optional {@code dayOfWeek} column. A header line naming
+         * the columns is optional; the {@code id,searchedDate,dayOfWeek} layout of the export is accepted too.
+         */
+        CSV,
+        /**
+         * One JSON object per line, with a {@code searchedDate} and an optional {@code dayOfWeek} field.
+         */
+        NDJSON,
+    }
+
+    /**
+     * Longest line kept in memory: anything longer is rejected without being buffered.
+     */
+    static final int MAX_LINE_LENGTH = 1024;
+
+    private static final String SEARCHED_DATE = "searchedDate";
+
+    private static final String DAY_OF_WEEK = "dayOfWeek";
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryImporter.class);
+
+    private final SessionFactory sessionFactory;
+
+    private final ObjectMapper objectMapper;
+
+    private final SearchHistoryDailyCountService searchHistoryDailyCountService;
+
+    private final ApplicationProperties.SearchHistoryImport properties;
+
+    public SearchHistoryImporter(
+        EntityManagerFactory entityManagerFactory,
+        ObjectMapper objectMapper,
+        SearchHistoryDailyCountService searchHistoryDailyCountService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        this.searchHistoryDailyCountService = searchHistoryDailyCountService;
+        this.properties = applicationProperties.getSearchHistoryImport();
+    }
+
+    /**
+     * Import all the rows read from {@code in}.
+     *
+     * @param in the upload, encoded in UTF-8.
+     * @param format the layout of the upload.
+     * @return the report of the import.
+     * @throws IOException if reading the upload fails.
+     */
+    public SearchHistoryImportReportDTO importSearchHistories(InputStream in, Format format) throws IOException {
+        SearchHistoryImportReportDTO report = new SearchHistoryImportReportDTO();
+        UploadLineReader reader = new UploadLineReader(new InputStreamReader(in, StandardCharsets.UTF_8), MAX_LINE_LENGTH);
+        int[] columns = null;
+        Map<Long, Long> hits = new HashMap<>();
+        long start = System.nanoTime();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(properties.getBatchSize());
+            Transaction transaction = session.beginTransaction();
+            try {
+                int pending = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (format == Format.CSV && columns == null) {
+                        columns = readCsvHeader(line);
+                        if (columns != null) {
+                            continue;
+                        }
+                        columns = new int[] { 0, 1 };
+                    }
+                    report.setRows(report.getRows() + 1);
+                    SearchHistory searchHistory;
+                    try {
+                        if (line.length() > MAX_LINE_LENGTH) {
+                            throw new IllegalArgumentException("Line longer than " + MAX_LINE_LENGTH + " characters");
+                        }
+                        searchHistory = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+                    } catch (IllegalArgumentException e) {
+                        reject(report, reader.getLineNumber(), e.getMessage());
+                        continue;
+                    }
+                    session.insert(searchHistory);
+                    hits.merge(searchHistory.getSearchedDate().toEpochDay(), 1L, Long::sum);
+                    report.setImported(report.getImported() + 1);
+                    if (++pending == properties.getCommitInterval()) {
+                        transaction.commit();
+                        countHits(hits);
+                        log.info(
+                            "Imported {} searchHistories, rejected {}, at {} rows/s",
+                            report.getImported(),
+                            report.getRejected(),
+                            rowsPerSecond(report.getRows(), System.nanoTime() - start)
+                        );
+                        transaction = session.beginTransaction();
+                        pending = 0;
+                    }
+                }
+                transaction.commit();
+                countHits(hits);
+            } catch (RuntimeException | IOException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            } finally {
+                sessionFactory.getCache().evictDefaultQueryRegion();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        report.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        report.setRowsPerSecond(rowsPerSecond(report.getRows(), elapsed));
+        log.info("Search history import done: {}", report);
+        return report;
+    }
+
+    private void countHits(Map<Long, Long> hits) {
+        hits.forEach(searchHistoryDailyCountService::add);
+        hits.clear();
+    }
+
+    private void reject(SearchHistoryImportReportDTO report, long line, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejections().size() < properties.getMaxReportedRejections()) {
+            report.getRejections().add(new SearchHistoryImportReportDTO.RejectionDTO(line, reason));
+        }
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? rows : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Read the column positions from a CSV header line.
+     *
+     * @return the positions of the searchedDate and dayOfWeek columns, {@code -1} when missing,
+     * or {@code null} if the line is not a header.
+     */
+    private static int[] readCsvHeader(String line) {
+        List<String> fields;
+        try {
+            fields = UploadLineReader.splitCsv(line);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int[] columns = { fields.indexOf(SEARCHED_DATE), fields.indexOf(DAY_OF_WEEK) };
+        return columns[0] == -1 ? null : columns;
+    }
+
+    private static SearchHistory parseCsv(String line, int[] columns) {
+        List<String> fields = UploadLineReader.splitCsv(line);
+        String searchedDate = columns[0] < fields.size() ? fields.get(columns[0]) : null;
+        String dayOfWeek = columns[1] >= 0 && columns[1] < fields.size() ? fields.get(columns[1]) : null;
+        return toSearchHistory(searchedDate, dayOfWeek);
+    }
+
+    private SearchHistory parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        JsonNode dayOfWeek = node.get(DAY_OF_WEEK);
+        return toSearchHistory(node.path(SEARCHED_DATE).textValue(), dayOfWeek == null || dayOfWeek.isNull() ? null : dayOfWeek.asText());
+    }
+
+    /**
+     * Build a search history from its raw fields, deriving the weekday when it is missing and checking it otherwise.
+     */
+    private static SearchHistory toSearchHistory(String searchedDate, String dayOfWeek) {
+        if (searchedDate == null || searchedDate.isBlank()) {
+            throw new IllegalArgumentException("Missing searchedDate");
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(searchedDate.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid searchedDate, expected yyyy-MM-dd");
+        }
+        DayOfWeek actual = date.getDayOfWeek();
+        if (dayOfWeek != null && !dayOfWeek.isBlank() && !actual.name().equals(dayOfWeek.strip().toUpperCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("dayOfWeek does not match searchedDate, expected " + actual);
+        }
+        return new SearchHistory().searchedDate(date).dayOfWeek(actual.name());
+    }
+}
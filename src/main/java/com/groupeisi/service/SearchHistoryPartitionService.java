@@ -0,0 +1,205 @@
+package com.groupeisi.service;
+
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.service.dto.SearchHistoryPartitionDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service maintaining the monthly partitions of the {@code search_history} table.
+ * <p>
+ * Upcoming months are split ahead of time from the trailing {@value #MAX_PARTITION} partition, and months older than
+ * the retention are removed by dropping their partition, optionally after exchanging it with an archive table. Both
+ * are metadata operations: their cost does not depend on the number of rows. As Hibernate does not see the removed
+ * rows, the search history entries of the second level cache are evicted afterwards.
+ */
+@Service
+public class SearchHistoryPartitionService {
+
+    static final String MAX_PARTITION = "pmax";
+
+    static final String ARCHIVE_TABLE_PREFIX = "search_history_archive_";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryPartitionService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache cache;
+
+    private final ApplicationProperties.SearchHistoryPartitioning properties;
+
+    public SearchHistoryPartitionService(
+        JdbcTemplate jdbcTemplate,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.properties = applicationProperties.getSearchHistoryPartitioning();
+    }
+
+    /**
+     * Maintain the partitions.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am) by default.
+     */
+    @Scheduled(cron = "${application.search-history-partitioning.cron:0 30 1 * * ?}")
+    public void scheduledMaintenance() {
+        try {
+            maintain(YearMonth.now());
+        } catch (DataAccessException e) {
+            log.error("Could not maintain the search_history partitions", e);
+        }
+    }
+
+    /**
+     * Create the partitions of the upcoming months, then drop or archive the expired ones.
+     *
+     * @param currentMonth the month the maintenance runs in.
+     * @return the partitions after the maintenance.
+     */
+    public synchronized List<SearchHistoryPartitionDTO> maintain(YearMonth currentMonth) {
+        List<SearchHistoryPartitionDTO> partitions = getPartitions();
+        if (partitions.isEmpty()) {
+            log.warn("The search_history table is not partitioned");
+            return partitions;
+        }
+        createPartitions(partitions, currentMonth, currentMonth.plusMonths(properties.getPremakeMonths()));
+        if (properties.getRetentionMonths() > 0) {
+            LocalDate cutoff = currentMonth.minusMonths(properties.getRetentionMonths()).atDay(1);
+            List<SearchHistoryPartitionDTO> expired = expiredPartitions(getPartitions(), cutoff);
+            try {
+                for (SearchHistoryPartitionDTO partition : expired) {
+                    removePartition(partition);
+                }
+            } finally {
+                if (!expired.isEmpty()) {
+                    cache.evictEntityData(SearchHistory.class);
+                    cache.evictDefaultQueryRegion();
+                }
+            }
+        }
+        return getPartitions();
+    }
+
+    /**
+     * Get the partitions of the {@code search_history} table, in order.
+     *
+     * @return the partitions, or an empty list if the table is not partitioned.
+     */
+    public List<SearchHistoryPartitionDTO> getPartitions() {
+        return jdbcTemplate.query(
+            "SELECT partition_name, partition_description, table_rows, data_length, index_length FROM information_schema.partitions" +
+            " WHERE table_schema = DATABASE() AND table_name = 'search_history' AND partition_name IS NOT NULL" +
+            " ORDER BY partition_ordinal_position",
+            (resultSet, rowNum) ->
+                new SearchHistoryPartitionDTO(
+                    resultSet.getString(1),
+                    parseBound(resultSet.getString(2)),
+                    resultSet.getLong(3),
+                    resultSet.getLong(4),
+                    resultSet.getLong(5)
+                )
+        );
+    }
+
+    private void createPartitions(List<SearchHistoryPartitionDTO> partitions, YearMonth currentMonth, YearMonth lastMonth) {
+        YearMonth month = partitions
+            .stream()
+            .map(SearchHistoryPartitionDTO::getLessThan)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .map(YearMonth::from)
+            .orElse(currentMonth);
+        List<String> definitions = new ArrayList<>();
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        log.info("Creating {} search_history partitions, up to {}", definitions.size() - 1, lastMonth);
+        jdbcTemplate.execute(
+            "ALTER TABLE search_history REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" + String.join(", ", definitions) + ")"
+        );
+    }
+
+    /**
+     * Drop a partition, after archiving it if configured. Archiving resumes where a failed run stopped: an existing
+     * archive table is reused, and a partition already exchanged with a non-empty archive table is dropped right away.
+     */
+    private void removePartition(SearchHistoryPartitionDTO partition) {
+        String name = partition.getName();
+        if (properties.isArchive()) {
+            String archiveTable = ARCHIVE_TABLE_PREFIX + name;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archiveTable + " LIKE search_history");
+            if (isPartitioned(archiveTable)) {
+                jdbcTemplate.execute("ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+            }
+            if (jdbcTemplate.queryForList("SELECT 1 FROM " + archiveTable + " LIMIT 1").isEmpty()) {
+                log.info("Archiving search_history partition {} to {}, holding about {} rows", name, archiveTable, partition.getRows());
+                jdbcTemplate.execute(
+                    "ALTER TABLE search_history EXCHANGE PARTITION " + name + " WITH TABLE " + archiveTable + " WITHOUT VALIDATION"
+                );
+            } else {
+                log.warn("Search_history partition {} was already archived to {}, dropping it", name, archiveTable);
+            }
+        } else {
+            log.info("Dropping search_history partition {}, holding about {} rows", name, partition.getRows());
+        }
+        jdbcTemplate.execute("ALTER TABLE search_history DROP PARTITION " + name);
+    }
+
+    private boolean isPartitioned(String table) {
+        return !jdbcTemplate
+            .queryForList(
+                "SELECT 1 FROM information_schema.partitions" +
+                " WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL",
+                table
+            )
+            .isEmpty();
+    }
+
+    /**
+     * Select the partitions only holding rows recorded before a date.
+     *
+     * @param partitions the partitions, in order.
+     * @param cutoff the first day to keep.
+     * @return the expired partitions.
+     */
+    static List<SearchHistoryPartitionDTO> expiredPartitions(List<SearchHistoryPartitionDTO> partitions, LocalDate cutoff) {
+        return partitions.stream().filter(partition -> partition.getLessThan() != null && !partition.getLessThan().isAfter(cutoff)).toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month);
+    }
+
+    /**
+     * Parse the description of a {@code RANGE COLUMNS} partition, such as {@code '2026-11-01'} or {@code MAXVALUE}.
+     */
+    static LocalDate parseBound(String description) {
+        if (description == null || "MAXVALUE".equalsIgnoreCase(description.strip())) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").strip());
+    }
+}
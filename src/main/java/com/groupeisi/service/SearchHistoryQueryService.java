@@ -0,0 +1,206 @@
+package com.groupeisi.service;
+
+import com.groupeisi.domain.*; // for static metamodels
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.repository.SearchHistoryRepository;
+import com.groupeisi.service.criteria.SearchHistoryCriteria;
+import com.groupeisi.service.dto.SearchHistoryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Service for executing complex queries for {@link SearchHistory} entities in the database.
+ * The main input is a {@link SearchHistoryCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link SearchHistoryDTO} which fulfills the criteria, or a {@link Slice} when
+ * the total count is not needed.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SearchHistoryQueryService extends QueryService<SearchHistory> {
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryQueryService.class);
+
+    private final SearchHistoryRepository searchHistoryRepository;
+
+    private final EntityManager entityManager;
+
+    public SearchHistoryQueryService(SearchHistoryRepository searchHistoryRepository, EntityManager entityManager) {
+        this.searchHistoryRepository = searchHistoryRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return a {@link Page} of {@link SearchHistoryDTO} which matches the criteria from the database.
+     * The total count query is skipped when the page is the last one.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<SearchHistoryDTO> findByCriteria(SearchHistoryCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<SearchHistory> specification = createSpecification(criteria);
+        TypedQuery<SearchHistoryDTO> query = createDTOQuery(specification, page.getSort());
+        if (page.isUnpaged()) {
+            List<SearchHistoryDTO> content = query.getResultList();
+            return new PageImpl<>(content, page, content.size());
+        }
+        List<SearchHistoryDTO> content = query.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize()).getResultList();
+        return PageableExecutionUtils.getPage(content, page, () -> searchHistoryRepository.count(specification));
+    }
+
+    /**
+     * Return a {@link Slice} of {@link SearchHistoryDTO} which matches the criteria from the database, without counting
+     * all the matching entities: one extra row is fetched to know whether there is a next slice.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<SearchHistoryDTO> findSliceByCriteria(SearchHistoryCriteria criteria, Pageable page) {
+        log.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<SearchHistory> specification = createSpecification(criteria);
+        TypedQuery<SearchHistoryDTO> query = createDTOQuery(specification, page.getSort());
+        if (page.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), page, false);
+        }
+        List<SearchHistoryDTO> content = query.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize() + 1).getResultList();
+        boolean hasNext = content.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, page.getPageSize()) : content, page, hasNext);
+    }
+
+    /**
+     * Select the columns of the matching entities straight into {@link SearchHistoryDTO}s: nothing is added to the
+     * persistence context or to the second level cache, and there is nothing to dirty check at the end of the transaction.
+     */
+    private TypedQuery<SearchHistoryDTO> createDTOQuery(Specification<SearchHistory> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SearchHistoryDTO> query = builder.createQuery(SearchHistoryDTO.class);
+        Root<SearchHistory> root = query.from(SearchHistory.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query
+            .select(
+                builder.construct(
+                    SearchHistoryDTO.class,
+                    root.get(SearchHistory_.id),
+                    root.get(SearchHistory_.searchedDate),
+                    root.get(SearchHistory_.dayOfWeek)
+                )
+            )
+            .orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(SearchHistoryCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<SearchHistory> specification = createSpecification(criteria);
+        return searchHistoryRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link SearchHistoryCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<SearchHistory> createSpecification(SearchHistoryCriteria criteria) {
+        Specification<SearchHistory> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), SearchHistory_.id));
+            }
+            if (criteria.getSearchedDate() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getSearchedDate(), SearchHistory_.searchedDate));
+            }
+            if (criteria.getDayOfWeek() != null) {
+                specification = specification.and(buildDayOfWeekSpecification(criteria.getDayOfWeek()));
+            }
+        }
+        return specification;
+    }
+
+    /**
+     * The weekday is stored as a number, so the string conditions of the filter cannot be evaluated by the database:
+     * they are resolved against the seven weekday names, and the matching names are looked up with a single {@code IN}.
+     */
+    private Specification<SearchHistory> buildDayOfWeekSpecification(StringFilter filter) {
+        Specification<SearchHistory> specification = Specification.where(null);
+        if (filter.getSpecified() != null) {
+            specification = specification.and((root, query, builder) ->
+                filter.getSpecified() ? builder.isNotNull(root.get(SearchHistory_.dayOfWeek)) : builder.isNull(root.get(SearchHistory_.dayOfWeek))
+            );
+        }
+        boolean valueFiltered =
+            filter.getEquals() != null ||
+            filter.getNotEquals() != null ||
+            filter.getIn() != null ||
+            filter.getNotIn() != null ||
+            filter.getContains() != null ||
+            filter.getDoesNotContain() != null;
+        if (valueFiltered) {
+            List<String> names = Arrays.stream(DayOfWeek.values()).map(DayOfWeek::name).filter(name -> matches(filter, name)).toList();
+            specification = specification.and((root, query, builder) ->
+                names.isEmpty() ? builder.disjunction() : root.get(SearchHistory_.dayOfWeek).in(names)
+            );
+        }
+        return specification;
+    }
+
+    /**
+     * Every condition ignores the case, as the comparisons of the former {@code varchar} column did with the
+     * case-insensitive collation of MySQL.
+     */
+    private static boolean matches(StringFilter filter, String name) {
+        return (
+            (filter.getEquals() == null || filter.getEquals().equalsIgnoreCase(name)) &&
+            (filter.getNotEquals() == null || !filter.getNotEquals().equalsIgnoreCase(name)) &&
+            (filter.getIn() == null || toUpperCase(filter.getIn()).contains(name)) &&
+            (filter.getNotIn() == null || !toUpperCase(filter.getNotIn()).contains(name)) &&
+            (filter.getContains() == null || name.contains(filter.getContains().toUpperCase(Locale.ROOT))) &&
+            (filter.getDoesNotContain() == null || !name.contains(filter.getDoesNotContain().toUpperCase(Locale.ROOT)))
+        );
+    }
+
+    private static Set<String> toUpperCase(List<String> values) {
+        return values.stream().filter(Objects::nonNull).map(value -> value.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,204 @@
+package com.groupeisi.service;
+
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.domain.SearchHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service recording day finder lookups into the {@link SearchHistory} table, off the request path.
+ * <p>
+ * Lookups are pushed to a bounded lock-free queue, and a background writer thread drains it in batches, one
+ * transaction per batch. Batches are inserted through a Hibernate {@link StatelessSession}, as by the
+ * {@link SearchHistoryImporter}: the recorded lookups never enter the second level cache, where they would evict the
+ * searchHistories that are actually read. A batch is written as soon as it is full, and at the latest after the configured flush interval.
+ * When the queue is full, lookups are dropped, optionally after making the caller wait for some free space.
+ * Lookups are added to the daily counts of the {@link SearchHistoryDailyCountService} once their batch is committed,
+ * so that dropped lookups are not counted.
+ */
+@Service
+public class SearchHistoryRecorder {
+
+    public static final String QUEUE_DEPTH_METER_NAME = "search.history.recorder.queue.depth";
+    public static final String FLUSH_METER_NAME = "search.history.recorder.flush";
+    public static final String LOOKUPS_METER_NAME = "search.history.recorder.lookups";
+    public static final String LOOKUPS_METER_OUTCOME_DIMENSION = "outcome";
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryRecorder.class);
+
+    private final SessionFactory sessionFactory;
+
+    private final SearchHistoryDailyCountService searchHistoryDailyCountService;
+
+    private final ApplicationProperties.SearchHistoryRecorder properties;
+
+    private final BoundedLongQueue queue;
+
+    private final long[] batch;
+
+    private final Counter recordedCounter;
+
+    private final Counter droppedCounter;
+
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+
+    private volatile Thread writer;
+
+    public SearchHistoryRecorder(
+        EntityManagerFactory entityManagerFactory,
+        SearchHistoryDailyCountService searchHistoryDailyCountService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.searchHistoryDailyCountService = searchHistoryDailyCountService;
+        this.properties = applicationProperties.getSearchHistoryRecorder();
+        this.queue = new BoundedLongQueue(properties.getQueueCapacity());
+        this.batch = new long[properties.getBatchSize()];
+        Gauge
+            .builder(QUEUE_DEPTH_METER_NAME, queue, BoundedLongQueue::size)
+            .description("Number of lookups waiting to be written to the search history.")
+            .baseUnit("lookups")
+            .register(meterRegistry);
+        this.flushTimer = Timer
+            .builder(FLUSH_METER_NAME)
+            .description("Time taken to write a batch of lookups to the search history.")
+            .register(meterRegistry);
+        this.recordedCounter = lookupsCounter("recorded").register(meterRegistry);
+        this.droppedCounter = lookupsCounter("dropped").register(meterRegistry);
+    }
+
+    private Counter.Builder lookupsCounter(String outcome) {
+        return Counter
+            .builder(LOOKUPS_METER_NAME)
+            .description("Number of day finder lookups handled by the search history recorder.")
+            .baseUnit("lookups")
+            .tag(LOOKUPS_METER_OUTCOME_DIMENSION, outcome);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::writeBehind, "search-history-recorder");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Record a lookup, without waiting for it to be written.
+     *
+     * @param epochDay the epoch day that was looked up.
+     * @return {@code false} if the lookup was dropped.
+     */
+    public boolean record(long epochDay) {
+        if (!running) {
+            return false;
+        }
+        if (queue.offer(epochDay) || (properties.getOverflowPolicy() == ApplicationProperties.OverflowPolicy.BLOCK && offerWaiting(epochDay))) {
+            if (queue.size() >= batch.length) {
+                LockSupport.unpark(writer);
+            }
+            return true;
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    private boolean offerWaiting(long epochDay) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getMaxBlockMs());
+        do {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (queue.offer(epochDay)) {
+                return true;
+            }
+        } while (System.nanoTime() < deadline);
+        return false;
+    }
+
+    /**
+     * Write every pending lookup now, from the calling thread.
+     */
+    public void flush() {
+        drain();
+    }
+
+    private void writeBehind() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            drain();
+        }
+        drain();
+    }
+
+    private synchronized void drain() {
+        int count;
+        while ((count = queue.drainTo(batch, batch.length)) > 0) {
+            write(count);
+        }
+    }
+
+    private void write(int count) {
+        try {
+            flushTimer.record(() -> insert(count));
+        } catch (RuntimeException e) {
+            log.warn("Could not record {} lookups in the search history", count, e);
+            droppedCounter.increment(count);
+            return;
+        }
+        recordedCounter.increment(count);
+        for (int i = 0; i < count; i++) {
+            searchHistoryDailyCountService.increment(batch[i]);
+        }
+    }
+
+    private void insert(int count) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batch.length);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (int i = 0; i < count; i++) {
+                    LocalDate date = LocalDate.ofEpochDay(batch[i]);
+                    session.insert(new SearchHistory().searchedDate(date).dayOfWeek(date.getDayOfWeek().name()));
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+    }
+}
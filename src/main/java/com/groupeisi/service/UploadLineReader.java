@@ -0,0 +1,114 @@
+package com.groupeisi.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader of the lines of an upload, for the bulk imports.
+ * <p>
+ * Lines are bounded: the rest of a line longer than the maximum is skipped, and the line is returned with one extra
+ * character so that it can be rejected. A byte order mark at the start of the upload is dropped.
+ */
+final class UploadLineReader {
+
+    private final Reader reader;
+
+    private final int maxLineLength;
+
+    private final char[] buffer = new char[8192];
+
+    private final StringBuilder line = new StringBuilder();
+
+    private int position;
+
+    private int limit;
+
+    private long lineNumber;
+
+    UploadLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * @return the next line, without its terminator, or {@code null} at the end of the upload.
+     * @throws IOException if reading the upload fails.
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit == -1) {
+                    limit = 0;
+                    if (!read) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            read = true;
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (line.length() <= maxLineLength) {
+                line.append(c);
+            }
+        }
+        lineNumber++;
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            line.deleteCharAt(0);
+        }
+        return line.toString();
+    }
+
+    /**
+     * @return the number of the last line read, starting from 1.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Split a CSV line into its fields, unquoting them as described by RFC 4180.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
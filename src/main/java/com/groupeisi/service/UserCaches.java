@@ -0,0 +1,45 @@
+package com.groupeisi.service;
+
+import com.groupeisi.repository.UserRepository;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Eviction of many users from the user caches, for the bulk operations on users.
+ * <p>
+ * The keys of each cache are removed in a single call when the cache is a JCache one, and one at a time otherwise.
+ */
+final class UserCaches {
+
+    private UserCaches() {}
+
+    /**
+     * Evict users from the caches by login and by email.
+     *
+     * @param cacheManager the cache manager holding the user caches.
+     * @param logins the logins of the users.
+     * @param emails the emails of the users, {@code null} ones are ignored.
+     */
+    static void evict(CacheManager cacheManager, Collection<String> logins, Collection<String> emails) {
+        evict(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE, logins);
+        evict(cacheManager, UserRepository.USERS_BY_EMAIL_CACHE, emails);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void evict(CacheManager cacheManager, String cacheName, Collection<String> keys) {
+        Set<String> distinctKeys = keys.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || distinctKeys.isEmpty()) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache) {
+            ((javax.cache.Cache<Object, Object>) nativeCache).removeAll(distinctKeys);
+        } else {
+            distinctKeys.forEach(cache::evict);
+        }
+    }
+}
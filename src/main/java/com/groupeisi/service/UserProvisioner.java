@@ -0,0 +1,416 @@
+package com.groupeisi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.config.Constants;
+import com.groupeisi.domain.Authority;
+import com.groupeisi.domain.User;
+import com.groupeisi.repository.AuthorityRepository;
+import com.groupeisi.repository.UserRepository;
+import com.groupeisi.security.AuthoritiesConstants;
+import com.groupeisi.service.dto.AdminUserDTO;
+import com.groupeisi.service.dto.UserProvisioningReportDTO;
+import com.groupeisi.service.dto.UserProvisioningReportDTO.RowResultDTO;
+import com.groupeisi.service.dto.UserProvisioningReportDTO.Status;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.security.RandomUtil;
+
+/**
+ * Service provisioning users in bulk.
+ * <p>
+ * The upload is read one line at a time, and each row is validated as {@link UserService#createUser} would. Valid rows
+ * are handled in chunks of {@code chunk-size}: the logins and emails already taken are looked up with one query each,
+ * the generated passwords are hashed in parallel on a pool of {@code hashing-threads}, and the users and their
+ * authorities are inserted in JDBC batches, in one transaction per chunk. The user caches are evicted once per chunk.
+ * <p>
+ * A chunk failing on a unique constraint, because of a user created meanwhile, is inserted again one row at a time, so
+ * that only the conflicting rows are rejected.
+ */
+@Service
+public class UserProvisioner {
+
+    /**
+     * Layout of the provisioned rows.
+     */
+    public enum Format {
+        /**
+         * Comma separated values, in the {@code login,email,firstName,lastName,langKey,authorities} columns, with the
+         * authorities separated by spaces or semicolons. A header line naming the columns is optional.
+         */
+        CSV,
+        /**
+         * One JSON user object per line, as sent to {@code POST /api/admin/users}.
+         */
+        NDJSON,
+    }
+
+    /**
+     * Longest line kept in memory: anything longer is rejected without being buffered.
+     */
+    static final int MAX_LINE_LENGTH = 2048;
+
+    private static final List<String> CSV_COLUMNS = List.of("login", "email", "firstName", "lastName", "langKey", "authorities");
+
+    private static final String IMAGE_URL = "imageUrl";
+
+    private static final String ALREADY_USED = "Login or email already in use";
+
+    private final Logger log = LoggerFactory.getLogger(UserProvisioner.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final MailService mailService;
+
+    private final CacheManager cacheManager;
+
+    private final EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ApplicationProperties.UserProvisioning properties;
+
+    private final ExecutorService hashingPool;
+
+    public UserProvisioner(
+        UserRepository userRepository,
+        AuthorityRepository authorityRepository,
+        PasswordEncoder passwordEncoder,
+        MailService mailService,
+        CacheManager cacheManager,
+        EntityManager em,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        Validator validator,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.authorityRepository = authorityRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.mailService = mailService;
+        this.cacheManager = cacheManager;
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = applicationProperties.getUserProvisioning();
+        int threads = properties.getHashingThreads() > 0 ? properties.getHashingThreads() : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-provisioning-");
+        threadFactory.setDaemon(true);
+        this.hashingPool = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    @PreDestroy
+    public void stop() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * Create the users read from {@code in}.
+     *
+     * @param in the upload, encoded in UTF-8.
+     * @param format the layout of the upload.
+     * @return the report of every row.
+     * @throws IOException if reading the upload fails.
+     */
+    public UserProvisioningReportDTO provisionUsers(InputStream in, Format format) throws IOException {
+        UserProvisioningReportDTO report = new UserProvisioningReportDTO();
+        UploadLineReader reader = new UploadLineReader(new InputStreamReader(in, StandardCharsets.UTF_8), MAX_LINE_LENGTH);
+        Set<String> authorities = authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toSet());
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Map<String, Integer> columns = null;
+        List<Row> chunk = new ArrayList<>(properties.getChunkSize());
+        long start = System.nanoTime();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = readCsvHeader(line);
+                if (columns != null) {
+                    continue;
+                }
+                columns = defaultCsvColumns();
+            }
+            report.setRows(report.getRows() + 1);
+            long lineNumber = reader.getLineNumber();
+            AdminUserDTO userDTO;
+            try {
+                if (line.length() > MAX_LINE_LENGTH) {
+                    throw new IllegalArgumentException("Line longer than " + MAX_LINE_LENGTH + " characters");
+                }
+                userDTO = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+                validate(userDTO, authorities);
+            } catch (IllegalArgumentException e) {
+                reject(report, lineNumber, null, e.getMessage());
+                continue;
+            }
+            String login = userDTO.getLogin().toLowerCase(Locale.ROOT);
+            String email = userDTO.getEmail() != null ? userDTO.getEmail().toLowerCase(Locale.ROOT) : null;
+            if (!logins.add(login) || (email != null && !emails.add(email))) {
+                reject(report, lineNumber, login, "Login or email already in the upload");
+                continue;
+            }
+            chunk.add(new Row(lineNumber, login, email, userDTO));
+            if (chunk.size() == properties.getChunkSize()) {
+                provisionChunk(chunk, report);
+                log.info(
+                    "Provisioned {} users, rejected {}, at {} rows/s",
+                    report.getCreated(),
+                    report.getRejected(),
+                    rowsPerSecond(report.getRows(), System.nanoTime() - start)
+                );
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            provisionChunk(chunk, report);
+        }
+        report.getResults().sort(Comparator.comparingLong(RowResultDTO::getLine));
+        long elapsed = System.nanoTime() - start;
+        report.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        report.setRowsPerSecond(rowsPerSecond(report.getRows(), elapsed));
+        log.info("User provisioning done: {}", report);
+        return report;
+    }
+
+    private void provisionChunk(List<Row> chunk, UserProvisioningReportDTO report) {
+        Set<String> takenLogins = userRepository.findAllLoginsByLoginIn(chunk.stream().map(Row::login).toList());
+        List<String> chunkEmails = chunk.stream().map(Row::email).filter(email -> email != null).toList();
+        Set<String> takenEmails = chunkEmails.isEmpty() ? Set.of() : lowerCase(userRepository.findAllEmailsByEmailIn(chunkEmails));
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (takenLogins.contains(row.login()) || (row.email() != null && takenEmails.contains(row.email()))) {
+                reject(report, row.line(), row.login(), ALREADY_USED);
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<String>> hashing = rows
+            .stream()
+            .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(RandomUtil.generatePassword()), hashingPool))
+            .toList();
+        List<String> passwords = hashing.stream().map(CompletableFuture::join).toList();
+
+        List<User> created = new ArrayList<>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < rows.size(); i++) {
+                    User user = toUser(rows.get(i), passwords.get(i));
+                    em.persist(user);
+                    created.add(user);
+                }
+                em.flush();
+            });
+            rows.forEach(row -> accept(report, row));
+        } catch (DataAccessException | PersistenceException e) {
+            log.debug("Chunk of {} users conflicts with existing users, inserting them one at a time: {}", rows.size(), e.getMessage());
+            created.clear();
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                String password = passwords.get(i);
+                try {
+                    created.add(
+                        transactionTemplate.execute(status -> {
+                            User user = toUser(row, password);
+                            em.persist(user);
+                            em.flush();
+                            return user;
+                        })
+                    );
+                    accept(report, row);
+                } catch (DataAccessException | PersistenceException rowException) {
+                    reject(report, row.line(), row.login(), ALREADY_USED);
+                }
+            }
+        } finally {
+            UserCaches.evict(cacheManager, rows.stream().map(Row::login).toList(), rows.stream().map(Row::email).toList());
+        }
+        created.forEach(mailService::sendCreationEmail);
+    }
+
+    /**
+     * A new user, set up as {@link UserService#createUser} does.
+     */
+    private User toUser(Row row, String password) {
+        AdminUserDTO userDTO = row.user();
+        User user = new User();
+        user.setLogin(row.login());
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setEmail(row.email());
+        user.setImageUrl(userDTO.getImageUrl());
+        user.setLangKey(userDTO.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : userDTO.getLangKey());
+        user.setPassword(password);
+        user.setResetKey(RandomUtil.generateResetKey());
+        user.setResetDate(Instant.now());
+        user.setActivated(true);
+        user.setAuthorities(
+            userDTO.getAuthorities().stream().map(name -> em.getReference(Authority.class, name)).collect(Collectors.toSet())
+        );
+        return user;
+    }
+
+    private void validate(AdminUserDTO userDTO, Set<String> authorities) {
+        if (userDTO.getId() != null) {
+            throw new IllegalArgumentException("A new user cannot already have an ID");
+        }
+        if (userDTO.getAuthorities() == null || userDTO.getAuthorities().isEmpty()) {
+            userDTO.setAuthorities(Set.of(AuthoritiesConstants.USER));
+        }
+        Set<ConstraintViolation<AdminUserDTO>> violations = validator.validate(userDTO);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(
+                violations
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "))
+            );
+        }
+        for (String authority : userDTO.getAuthorities()) {
+            if (!authorities.contains(authority)) {
+                throw new IllegalArgumentException("Unknown authority " + authority);
+            }
+        }
+    }
+
+    private static void accept(UserProvisioningReportDTO report, Row row) {
+        report.setCreated(report.getCreated() + 1);
+        report.getResults().add(new RowResultDTO(row.line(), row.login(), Status.CREATED, null));
+    }
+
+    private static void reject(UserProvisioningReportDTO report, long line, String login, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        report.getResults().add(new RowResultDTO(line, login, Status.REJECTED, reason));
+    }
+
+    private static Set<String> lowerCase(Collection<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? rows : rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private static Map<String, Integer> defaultCsvColumns() {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columns.put(CSV_COLUMNS.get(i), i);
+        }
+        return columns;
+    }
+
+    /**
+     * Read the column positions from a CSV header line.
+     *
+     * @return the positions of the known columns, or {@code null} if the line is not a header.
+     */
+    private static Map<String, Integer> readCsvHeader(String line) {
+        List<String> fields;
+        try {
+            fields = UploadLineReader.splitCsv(line);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i).trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(field)) {
+                    columns.put(column, i);
+                }
+            }
+            if (IMAGE_URL.equalsIgnoreCase(field)) {
+                columns.put(IMAGE_URL, i);
+            }
+        }
+        return columns.containsKey("login") ? columns : null;
+    }
+
+    private static AdminUserDTO parseCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = UploadLineReader.splitCsv(line);
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(field(fields, columns, "login"));
+        userDTO.setEmail(field(fields, columns, "email"));
+        userDTO.setFirstName(field(fields, columns, "firstName"));
+        userDTO.setLastName(field(fields, columns, "lastName"));
+        userDTO.setLangKey(field(fields, columns, "langKey"));
+        userDTO.setImageUrl(field(fields, columns, IMAGE_URL));
+        String authorities = field(fields, columns, "authorities");
+        if (authorities != null) {
+            userDTO.setAuthorities(Arrays.stream(authorities.split("[;\\s]+")).filter(name -> !name.isEmpty()).collect(Collectors.toSet()));
+        }
+        return userDTO;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private AdminUserDTO parseJson(String line) {
+        try {
+            AdminUserDTO userDTO = objectMapper.readValue(line, AdminUserDTO.class);
+            if (userDTO == null) {
+                throw new IllegalArgumentException("Not a JSON object");
+            }
+            return userDTO;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private record Row(long line, String login, String email, AdminUserDTO user) {}
+}
@@ -0,0 +1,258 @@
+package com.groupeisi.service;
+
+import com.groupeisi.domain.User;
+import com.groupeisi.domain.User_;
+import com.groupeisi.repository.UserRepository;
+import com.groupeisi.service.dto.AdminUserDTO;
+import com.groupeisi.service.dto.UserDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for listing {@link User}s by keyset pagination, also known as seek pagination.
+ * <p>
+ * A slice is read after the sort key of the last user of the previous slice, which a continuation token, not encrypted,
+ * carries: the query seeks into the index of the sorted column instead of scanning and skipping an offset, and no
+ * count query is run. The id breaks the ties, in the direction of the sort, so that the seek follows the secondary
+ * index of the column, which holds the primary key.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserQueryService {
+
+    private static final String ID = "id";
+
+    /**
+     * Properties the public listing can be sorted by with a cursor: the token carries the sort key in clear, so it must
+     * not disclose anything that the listing does not show.
+     */
+    private static final Set<String> PUBLIC_SEEK_PROPERTIES = Set.of(ID, "login");
+
+    private static final String MALFORMED_CURSOR = "Malformed cursor";
+
+    private final Logger log = LoggerFactory.getLogger(UserQueryService.class);
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    public UserQueryService(UserRepository userRepository, EntityManager entityManager) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Get a slice of the activated users, with only public information.
+     *
+     * @param cursor the continuation token of the slice, empty for the first one.
+     * @param pageable the size and the sort of the slice: the id or the login, which may be followed by the id.
+     * @return the slice of users.
+     * @throws InvalidCursorException if the sort is not allowed, or if the token is malformed or was issued for another
+     * sort.
+     */
+    public KeysetSlice<UserDTO> findPublicUsers(String cursor, Pageable pageable) {
+        log.debug("find public users after cursor : {}, page: {}", cursor, pageable);
+        Sort.Order order = seekOrder(pageable.getSort());
+        if (!PUBLIC_SEEK_PROPERTIES.contains(order.getProperty())) {
+            throw new InvalidCursorException("A cursor over the public users follows their id or their login");
+        }
+        List<Tuple> rows = seek(order, cursor, pageable.getPageSize(), true);
+        List<UserDTO> content = rows
+            .stream()
+            .limit(pageable.getPageSize())
+            .map(row -> new UserDTO(row.get(0, Long.class), row.get(2, String.class)))
+            .toList();
+        return new KeysetSlice<>(content, slicePageable(order, pageable), nextCursor(order, rows, pageable.getPageSize()));
+    }
+
+    /**
+     * Get a slice of users with all the details, in two queries: the ids of the slice, then the users of these ids with
+     * their authorities.
+     *
+     * @param cursor the continuation token of the slice, empty for the first one.
+     * @param pageable the size and the sort of the slice: a single property, which may be followed by the id.
+     * @return the slice of users.
+     * @throws InvalidCursorException if the token is malformed, or was issued for another sort.
+     */
+    public KeysetSlice<AdminUserDTO> findManagedUsers(String cursor, Pageable pageable) {
+        log.debug("find managed users after cursor : {}, page: {}", cursor, pageable);
+        Sort.Order order = seekOrder(pageable.getSort());
+        List<Tuple> rows = seek(order, cursor, pageable.getPageSize(), false);
+        List<Long> ids = rows.stream().limit(pageable.getPageSize()).map(row -> row.get(0, Long.class)).toList();
+        List<AdminUserDTO> content = List.of();
+        if (!ids.isEmpty()) {
+            Map<Long, User> users = userRepository
+                .findAllWithAuthoritiesByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+            // users deleted in between are left out
+            content = ids.stream().map(users::get).filter(Objects::nonNull).map(AdminUserDTO::new).toList();
+        }
+        return new KeysetSlice<>(content, slicePageable(order, pageable), nextCursor(order, rows, pageable.getPageSize()));
+    }
+
+    /**
+     * @return the number of activated users, which can be {@code user-listing.count-time-to-live-seconds} behind.
+     */
+    public long countPublicUsers() {
+        return userRepository.countActivatedCached();
+    }
+
+    /**
+     * @return the number of users, which can be {@code user-listing.count-time-to-live-seconds} behind.
+     */
+    public long countManagedUsers() {
+        return userRepository.countAllCached();
+    }
+
+    /**
+     * Select the id, the sort key and the login of the users after the cursor, one more than the size of the slice to
+     * know whether there is a next one.
+     */
+    private List<Tuple> seek(Sort.Order order, String cursor, int size, boolean activatedOnly) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        Path<Long> id = root.get(User_.id);
+        Path<Object> key = root.get(order.getProperty());
+        List<Predicate> predicates = new ArrayList<>();
+        if (activatedOnly) {
+            predicates.add(builder.isTrue(root.get(User_.activated)));
+        }
+        if (!cursor.isEmpty()) {
+            predicates.add(after(builder, id, key, order, cursor));
+        }
+        query
+            .multiselect(id, key, root.get(User_.login))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(
+                order.isAscending() ? builder.asc(key) : builder.desc(key),
+                order.isAscending() ? builder.asc(id) : builder.desc(id)
+            );
+        return entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+    }
+
+    /**
+     * The users after the sort key of the cursor. MySQL sorts the null values first in ascending order, and last in
+     * descending order.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate after(CriteriaBuilder builder, Path<Long> id, Path<Object> key, Sort.Order order, String cursor) {
+        String[] lines = decode(cursor, order);
+        long lastId;
+        Comparable lastKey;
+        try {
+            lastId = Long.parseLong(lines[1]);
+            lastKey = lines.length > 2 ? parseKey(key.getJavaType(), lines[2]) : null;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidCursorException(MALFORMED_CURSOR);
+        }
+        boolean ascending = order.isAscending();
+        Predicate idAfter = ascending ? builder.greaterThan(id, lastId) : builder.lessThan(id, lastId);
+        if (ID.equals(order.getProperty())) {
+            return idAfter;
+        }
+        Expression<Comparable> comparableKey = (Expression) key;
+        if (lastKey == null) {
+            Predicate nullAfter = builder.and(builder.isNull(key), idAfter);
+            return ascending ? builder.or(nullAfter, builder.isNotNull(key)) : nullAfter;
+        }
+        Predicate keyAfter = builder.or(
+            ascending ? builder.greaterThan(comparableKey, lastKey) : builder.lessThan(comparableKey, lastKey),
+            builder.and(builder.equal(key, lastKey), idAfter)
+        );
+        return ascending ? keyAfter : builder.or(keyAfter, builder.isNull(key));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable parseKey(Class<?> type, String text) {
+        if (type == Instant.class) {
+            return Instant.parse(text);
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return Boolean.valueOf(text);
+        }
+        if (type == Long.class || type == long.class) {
+            return Long.valueOf(text);
+        }
+        return text;
+    }
+
+    /**
+     * @return the order of the seek: the single sorted property, or the id when the users are not sorted.
+     */
+    private static Sort.Order seekOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) {
+            return Sort.Order.asc(ID);
+        }
+        if (orders.size() > 2 || (orders.size() == 2 && !ID.equals(orders.get(1).getProperty()))) {
+            throw new InvalidCursorException("A cursor follows a single sort property, which may be followed by the id");
+        }
+        return orders.get(0);
+    }
+
+    private static Pageable slicePageable(Sort.Order order, Pageable pageable) {
+        Sort.Order idOrder = new Sort.Order(order.getDirection(), ID);
+        return PageRequest.of(0, pageable.getPageSize(), ID.equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, idOrder));
+    }
+
+    /**
+     * The token is the sort, the id and the sort key of the last user of the slice, one per line, in Base64: the key is
+     * left out when it is null.
+     */
+    private static String nextCursor(Sort.Order order, List<Tuple> rows, int size) {
+        if (rows.size() <= size) {
+            return null;
+        }
+        Tuple last = rows.get(size - 1);
+        Object key = last.get(1);
+        String text = sortOf(order) + "\n" + last.get(0, Long.class) + (key == null ? "" : "\n" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, Sort.Order order) {
+        String[] lines;
+        try {
+            lines = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 3);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(MALFORMED_CURSOR);
+        }
+        if (lines.length < 2) {
+            throw new InvalidCursorException(MALFORMED_CURSOR);
+        }
+        if (!lines[0].equals(sortOf(order))) {
+            throw new InvalidCursorException("The cursor was issued for another sort");
+        }
+        return lines;
+    }
+
+    private static String sortOf(Sort.Order order) {
+        return order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.groupeisi.service;
 
+import com.groupeisi.config.ApplicationProperties;
 import com.groupeisi.config.Constants;
 import com.groupeisi.domain.Authority;
 import com.groupeisi.domain.User;
@@ -8,20 +9,38 @@ import com.groupeisi.repository.UserRepository;
 import com.groupeisi.security.AuthoritiesConstants;
 import com.groupeisi.security.SecurityUtils;
 import com.groupeisi.service.dto.AdminUserDTO;
+import com.groupeisi.service.dto.UserBulkOperationDTO;
+import com.groupeisi.service.dto.UserBulkOperationReportDTO;
 import com.groupeisi.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -31,6 +50,30 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    public static final String PURGED_USERS_METER_NAME = "user.purge.deleted";
+
+    public static final String PURGE_CHUNK_METER_NAME = "user.purge.chunk";
+
+    private static final String DELETE_PURGED_USERS =
+        "DELETE FROM jhi_user WHERE id IN (:ids) AND activated = FALSE AND activation_key IS NOT NULL";
+
+    private static final String SELECT_NON_ACTIVATED_REGISTRATIONS_FOR_UPDATE =
+        "SELECT id, login, email FROM jhi_user WHERE (login = :login OR email = :email) AND activated = FALSE FOR UPDATE";
+
+    private static final String DELETE_NON_ACTIVATED_REGISTRATIONS = "DELETE FROM jhi_user WHERE id IN (:ids)";
+
+    private static final String LOGIN_UNIQUE_CONSTRAINT = "ux_user_login";
+
+    private static final String EMAIL_UNIQUE_CONSTRAINT = "ux_user_email";
+
+    private static final String INSERT_AUTHORITIES =
+        "INSERT INTO jhi_user_authority (user_id, authority_name)" +
+        " SELECT u.id, a.name FROM jhi_user u JOIN jhi_authority a ON a.name IN (:authorities) WHERE u.id IN (:ids)" +
+        " AND NOT EXISTS (SELECT 1 FROM jhi_user_authority ua WHERE ua.user_id = u.id AND ua.authority_name = a.name)";
+
+    private static final String DELETE_AUTHORITIES =
+        "DELETE FROM jhi_user_authority WHERE user_id IN (:ids) AND authority_name IN (:authorities)";
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -41,16 +84,45 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.UserPurge purgeProperties;
+
+    private final ApplicationProperties.UserBulkOperations bulkOperationsProperties;
+
+    private final Counter purgedUsersCounter;
+
+    private final Timer purgeChunkTimer;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        NamedParameterJdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgeProperties = applicationProperties.getUserPurge();
+        this.bulkOperationsProperties = applicationProperties.getUserBulkOperations();
+        this.purgedUsersCounter = Counter
+            .builder(PURGED_USERS_METER_NAME)
+            .description("Number of not activated users deleted by the purge.")
+            .baseUnit("users")
+            .register(meterRegistry);
+        this.purgeChunkTimer = Timer
+            .builder(PURGE_CHUNK_METER_NAME)
+            .description("Time taken to delete a chunk of not activated users.")
+            .register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -83,7 +155,7 @@ public class UserService {
 
     public Optional<User> requestPasswordReset(String mail) {
         return userRepository
-            .findOneByEmailIgnoreCase(mail)
+            .findOneByEmail(StringUtils.lowerCase(mail, Locale.ENGLISH))
             .filter(User::isActivated)
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
@@ -93,33 +165,53 @@ public class UserService {
             });
     }
 
+    /**
+     * Register a new, not activated, user.
+     * <p>
+     * The not activated users holding the login or the email are locked by a single locking read, and taken over: they
+     * are deleted, and evicted from the caches under both their login and their email. Then the user is inserted and the
+     * unique constraints on the login and the email decide between the concurrent registrations, which are not looked up
+     * beforehand. When the registration starts its own transaction, that transaction reads committed rows only, so that
+     * MySQL does not take the gap locks which would make concurrent registrations of the same login deadlock instead of
+     * failing on the constraint; a registration joining the transaction of its caller runs at the isolation of the caller.
+     *
+     * @param userDTO the user to register.
+     * @param password the clear text password of the user.
+     * @return the registered user.
+     * @throws UsernameAlreadyUsedException if an activated user holds the login.
+     * @throws EmailAlreadyUsedException if an activated user holds the email.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public User registerUser(AdminUserDTO userDTO, String password) {
-        userRepository
-            .findOneByLogin(userDTO.getLogin().toLowerCase())
-            .ifPresent(existingUser -> {
-                boolean removed = removeNonActivatedUser(existingUser);
-                if (!removed) {
-                    throw new UsernameAlreadyUsedException();
-                }
-            });
-        userRepository
-            .findOneByEmailIgnoreCase(userDTO.getEmail())
-            .ifPresent(existingUser -> {
-                boolean removed = removeNonActivatedUser(existingUser);
-                if (!removed) {
-                    throw new EmailAlreadyUsedException();
-                }
-            });
+        String login = StringUtils.lowerCase(userDTO.getLogin(), Locale.ENGLISH);
+        String email = StringUtils.lowerCase(userDTO.getEmail(), Locale.ENGLISH);
+        // the changes pending in the persistence context must be visible to the statements
+        userRepository.flush();
+        List<UserRepository.IdLoginAndEmail> nonActivatedUsers = jdbcTemplate.query(
+            SELECT_NON_ACTIVATED_REGISTRATIONS_FOR_UPDATE,
+            new MapSqlParameterSource().addValue("login", login).addValue("email", email),
+            (resultSet, rowNum) -> new UserRepository.IdLoginAndEmail(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3))
+        );
+        if (!nonActivatedUsers.isEmpty()) {
+            jdbcTemplate.update(
+                DELETE_NON_ACTIVATED_REGISTRATIONS,
+                Map.of("ids", nonActivatedUsers.stream().map(UserRepository.IdLoginAndEmail::id).toList())
+            );
+            UserCaches.evict(
+                cacheManager,
+                nonActivatedUsers.stream().map(UserRepository.IdLoginAndEmail::login).toList(),
+                nonActivatedUsers.stream().map(UserRepository.IdLoginAndEmail::email).toList()
+            );
+            log.debug("Took over {} not activated users for login {} and email {}", nonActivatedUsers.size(), login, email);
+        }
         User newUser = new User();
         String encryptedPassword = passwordEncoder.encode(password);
-        newUser.setLogin(userDTO.getLogin().toLowerCase());
+        newUser.setLogin(login);
         // new user gets initially a generated password
         newUser.setPassword(encryptedPassword);
         newUser.setFirstName(userDTO.getFirstName());
         newUser.setLastName(userDTO.getLastName());
-        if (userDTO.getEmail() != null) {
-            newUser.setEmail(userDTO.getEmail().toLowerCase());
-        }
+        newUser.setEmail(email);
         newUser.setImageUrl(userDTO.getImageUrl());
         newUser.setLangKey(userDTO.getLangKey());
         // new user is not active
@@ -129,20 +221,37 @@ public class UserService {
         Set<Authority> authorities = new HashSet<>();
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
-        userRepository.save(newUser);
+        try {
+            userRepository.saveAndFlush(newUser);
+        } catch (DataIntegrityViolationException e) {
+            throw translateRegistrationConflict(e);
+        }
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
 
-    private boolean removeNonActivatedUser(User existingUser) {
-        if (existingUser.isActivated()) {
-            return false;
+    /**
+     * @return the exception telling which of the login or the email the violated unique constraint is about, or the
+     * violation itself when it is about neither.
+     */
+    private static RuntimeException translateRegistrationConflict(DataIntegrityViolationException e) {
+        String violated = null;
+        for (Throwable cause = e; cause != null && violated == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                violated = violation.getConstraintName();
+            }
         }
-        userRepository.delete(existingUser);
-        userRepository.flush();
-        this.clearUserCaches(existingUser);
-        return true;
+        if (violated == null) {
+            violated = String.valueOf(e.getMostSpecificCause().getMessage());
+        }
+        if (violated.contains(LOGIN_UNIQUE_CONSTRAINT)) {
+            return new UsernameAlreadyUsedException();
+        }
+        if (violated.contains(EMAIL_UNIQUE_CONSTRAINT)) {
+            return new EmailAlreadyUsedException();
+        }
+        return e;
     }
 
     public User createUser(AdminUserDTO userDTO) {
@@ -273,14 +382,31 @@ public class UserService {
             });
     }
 
+    /**
+     * Get a page of users with their authorities, in two queries whatever the size of the page, besides the count: the
+     * ids of the page, then the users of these ids with their authorities.
+     *
+     * @param pageable the pagination information.
+     * @return the page of users.
+     */
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+        Page<Long> ids = userRepository.findAllIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, User> users = userRepository
+            .findAllWithAuthoritiesByIdIn(ids.getContent())
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        // users deleted in between are left out
+        List<AdminUserDTO> content = ids.stream().map(users::get).filter(Objects::nonNull).map(AdminUserDTO::new).toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
-        return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
+        return userRepository.findIdAndLoginByActivatedIsTrue(pageable).map(user -> new UserDTO(user.id(), user.login()));
     }
 
     @Transactional(readOnly = true)
@@ -293,20 +419,104 @@ public class UserService {
         return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
     }
 
+    /**
+     * Apply an operation to many users.
+     * <p>
+     * The logins are handled in batches of {@code batch-size}: the users of a batch are read with one query, then updated
+     * by set-based statements on {@code jhi_user} and {@code jhi_user_authority}, and evicted from the caches at once.
+     * The authorities of the operations on authorities must exist.
+     *
+     * @param bulkOperation the operation and the logins of the users.
+     * @return the report of the operation.
+     */
+    public UserBulkOperationReportDTO applyBulkOperation(UserBulkOperationDTO bulkOperation) {
+        List<String> logins = bulkOperation.getLogins().stream().map(login -> login.toLowerCase(Locale.ENGLISH)).distinct().toList();
+        String modifiedBy = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM);
+        Instant modifiedDate = Instant.now();
+        UserBulkOperationReportDTO report = new UserBulkOperationReportDTO();
+        report.setRequested(logins.size());
+        int batchSize = bulkOperationsProperties.getBatchSize();
+        for (int from = 0; from < logins.size(); from += batchSize) {
+            List<String> batch = logins.subList(from, Math.min(from + batchSize, logins.size()));
+            List<UserRepository.IdLoginAndEmail> users = userRepository.findIdLoginAndEmailByLoginIn(batch);
+            Set<String> found = users.stream().map(user -> user.login().toLowerCase(Locale.ENGLISH)).collect(Collectors.toSet());
+            batch.stream().filter(login -> !found.contains(login)).forEach(report.getNotFound()::add);
+            if (users.isEmpty()) {
+                continue;
+            }
+            List<Long> ids = users.stream().map(UserRepository.IdLoginAndEmail::id).toList();
+            switch (bulkOperation.getOperation()) {
+                case ACTIVATE -> userRepository.activateByIdIn(modifiedBy, modifiedDate, ids);
+                case DEACTIVATE -> userRepository.deactivateByIdIn(modifiedBy, modifiedDate, ids);
+                case ADD_AUTHORITIES -> {
+                    jdbcTemplate.update(INSERT_AUTHORITIES, Map.of("ids", ids, "authorities", bulkOperation.getAuthorities()));
+                    userRepository.updateLastModifiedByIdIn(modifiedBy, modifiedDate, ids);
+                }
+                case REMOVE_AUTHORITIES -> {
+                    jdbcTemplate.update(DELETE_AUTHORITIES, Map.of("ids", ids, "authorities", bulkOperation.getAuthorities()));
+                    userRepository.updateLastModifiedByIdIn(modifiedBy, modifiedDate, ids);
+                }
+            }
+            UserCaches.evict(
+                cacheManager,
+                users.stream().map(UserRepository.IdLoginAndEmail::login).toList(),
+                users.stream().map(UserRepository.IdLoginAndEmail::email).toList()
+            );
+            report.setUpdated(report.getUpdated() + users.size());
+        }
+        log.debug("Applied {} to users: {}", bulkOperation.getOperation(), report);
+        return report;
+    }
+
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
      * This is scheduled to get fired everyday, at 01:00 (am).
+     * <p>
+     * The users are deleted in chunks of {@code chunk-size}, each in its own short transaction, outside of any transaction
+     * of the caller: the ids of a chunk are read past the last id of the previous one, then the users are deleted by a
+     * single statement, which checks that they are still not activated, their authorities going with them through the
+     * {@code ON DELETE CASCADE} of {@code jhi_user_authority}. The caches are evicted once per chunk.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        Pageable chunk = PageRequest.of(0, purgeProperties.getChunkSize(), Sort.by("id"));
+        long lastId = 0;
+        long deleted = 0;
+        while (true) {
+            long afterId = lastId;
+            List<UserRepository.IdLoginAndEmail> users = Objects.requireNonNull(
+                transactionTemplate.execute(status ->
+                    userRepository.findIdLoginAndEmailByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBeforeAndIdGreaterThan(
+                        createdBefore,
+                        afterId,
+                        chunk
+                    )
+                )
+            );
+            if (users.isEmpty()) {
+                break;
+            }
+            int count = purgeChunkTimer.record(() -> transactionTemplate.execute(status -> removeNotActivatedUsers(users)));
+            UserCaches.evict(
+                cacheManager,
+                users.stream().map(UserRepository.IdLoginAndEmail::login).toList(),
+                users.stream().map(UserRepository.IdLoginAndEmail::email).toList()
+            );
+            purgedUsersCounter.increment(count);
+            deleted += count;
+            lastId = users.get(users.size() - 1).id();
+            log.debug("Deleted {} not activated users, up to id {}", deleted, lastId);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} not activated users", deleted);
+        }
+    }
+
+    private int removeNotActivatedUsers(List<UserRepository.IdLoginAndEmail> users) {
+        return jdbcTemplate.update(DELETE_PURGED_USERS, Map.of("ids", users.stream().map(UserRepository.IdLoginAndEmail::id).toList()));
     }
 
     /**
@@ -0,0 +1,131 @@
+package com.groupeisi.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.core.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.groupeisi.domain.SearchHistory} entity. This class is used
+ * in {@link com.groupeisi.web.rest.SearchHistoryResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /search-histories?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SearchHistoryCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private LocalDateFilter searchedDate;
+
+    private StringFilter dayOfWeek;
+
+    private Boolean distinct;
+
+    public SearchHistoryCriteria() {}
+
+    public SearchHistoryCriteria(SearchHistoryCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.searchedDate = other.searchedDate == null ? null : other.searchedDate.copy();
+        this.dayOfWeek = other.dayOfWeek == null ? null : other.dayOfWeek.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public SearchHistoryCriteria copy() {
+        return new SearchHistoryCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public LocalDateFilter getSearchedDate() {
+        return searchedDate;
+    }
+
+    public LocalDateFilter searchedDate() {
+        if (searchedDate == null) {
+            searchedDate = new LocalDateFilter();
+        }
+        return searchedDate;
+    }
+
+    public void setSearchedDate(LocalDateFilter searchedDate) {
+        this.searchedDate = searchedDate;
+    }
+
+    public StringFilter getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public StringFilter dayOfWeek() {
+        if (dayOfWeek == null) {
+            dayOfWeek = new StringFilter();
+        }
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(StringFilter dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SearchHistoryCriteria that = (SearchHistoryCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(searchedDate, that.searchedDate) &&
+            Objects.equals(dayOfWeek, that.dayOfWeek) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, searchedDate, dayOfWeek, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHistoryCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (searchedDate != null ? "searchedDate=" + searchedDate + ", " : "") +
+            (dayOfWeek != null ? "dayOfWeek=" + dayOfWeek + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Criteria classes used to filter entities.
+ */
+package com.groupeisi.service.criteria;
@@ -0,0 +1,78 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A DTO representing the number of occurrences of each weekday in a date range.
+ */
+public class DayOfWeekSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String from;
+
+    private String to;
+
+    private long days;
+
+    private Map<DayOfWeek, Long> counts = new EnumMap<>(DayOfWeek.class);
+
+    public DayOfWeekSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public DayOfWeekSummaryDTO(String from, String to, long[] counts) {
+        this.from = from;
+        this.to = to;
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            this.counts.put(dayOfWeek, counts[dayOfWeek.ordinal()]);
+            this.days += counts[dayOfWeek.ordinal()];
+        }
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public long getDays() {
+        return days;
+    }
+
+    public void setDays(long days) {
+        this.days = days;
+    }
+
+    public Map<DayOfWeek, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<DayOfWeek, Long> counts) {
+        this.counts = counts;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "DayOfWeekSummaryDTO{" +
+            "from='" + from + '\'' +
+            ", to='" + to + '\'' +
+            ", days=" + days +
+            ", counts=" + counts +
+            "}";
+    }
+}
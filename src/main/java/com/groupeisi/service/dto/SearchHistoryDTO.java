@@ -0,0 +1,62 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing a searchHistory, read with a constructor expression instead of a managed entity.
+ */
+public class SearchHistoryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private LocalDate searchedDate;
+
+    private String dayOfWeek;
+
+    public SearchHistoryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SearchHistoryDTO(Long id, LocalDate searchedDate, String dayOfWeek) {
+        this.id = id;
+        this.searchedDate = searchedDate;
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getSearchedDate() {
+        return searchedDate;
+    }
+
+    public void setSearchedDate(LocalDate searchedDate) {
+        this.searchedDate = searchedDate;
+    }
+
+    public String getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(String dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHistoryDTO{" +
+            "id=" + id +
+            ", searchedDate='" + searchedDate + "'" +
+            ", dayOfWeek='" + dayOfWeek + "'" +
+            "}";
+    }
+}
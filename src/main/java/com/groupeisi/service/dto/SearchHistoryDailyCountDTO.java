@@ -0,0 +1,50 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing the number of lookups of a date.
+ */
+public class SearchHistoryDailyCountDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate searchedDate;
+
+    private long hits;
+
+    public SearchHistoryDailyCountDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SearchHistoryDailyCountDTO(LocalDate searchedDate, long hits) {
+        this.searchedDate = searchedDate;
+        this.hits = hits;
+    }
+
+    public LocalDate getSearchedDate() {
+        return searchedDate;
+    }
+
+    public void setSearchedDate(LocalDate searchedDate) {
+        this.searchedDate = searchedDate;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHistoryDailyCountDTO{" +
+            "searchedDate=" + searchedDate +
+            ", hits=" + hits +
+            "}";
+    }
+}
@@ -0,0 +1,134 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a search history import.
+ */
+public class SearchHistoryImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long rows;
+
+    private long imported;
+
+    private long rejected;
+
+    private long elapsedMs;
+
+    private long rowsPerSecond;
+
+    private List<RejectionDTO> rejections = new ArrayList<>();
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * @return the first rejected rows, up to the configured maximum; {@link #getRejected()} holds the total.
+     */
+    public List<RejectionDTO> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<RejectionDTO> rejections) {
+        this.rejections = rejections;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHistoryImportReportDTO{" +
+            "rows=" + rows +
+            ", imported=" + imported +
+            ", rejected=" + rejected +
+            ", elapsedMs=" + elapsedMs +
+            ", rowsPerSecond=" + rowsPerSecond +
+            "}";
+    }
+
+    /**
+     * A rejected row of the import.
+     */
+    public static class RejectionDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long line;
+
+        private String reason;
+
+        public RejectionDTO() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RejectionDTO(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RejectionDTO{" +
+                "line=" + line +
+                ", reason='" + reason + '\'' +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing a partition of the search history table.
+ */
+public class SearchHistoryPartitionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String name;
+
+    private LocalDate lessThan;
+
+    private long rows;
+
+    private long dataLength;
+
+    private long indexLength;
+
+    public SearchHistoryPartitionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SearchHistoryPartitionDTO(String name, LocalDate lessThan, long rows, long dataLength, long indexLength) {
+        this.name = name;
+        this.lessThan = lessThan;
+        this.rows = rows;
+        this.dataLength = dataLength;
+        this.indexLength = indexLength;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the exclusive upper bound of the partition, or {@code null} for the trailing {@code MAXVALUE} partition.
+     */
+    public LocalDate getLessThan() {
+        return lessThan;
+    }
+
+    public void setLessThan(LocalDate lessThan) {
+        this.lessThan = lessThan;
+    }
+
+    /**
+     * @return the estimated number of rows, from the table statistics.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    public void setDataLength(long dataLength) {
+        this.dataLength = dataLength;
+    }
+
+    public long getIndexLength() {
+        return indexLength;
+    }
+
+    public void setIndexLength(long indexLength) {
+        this.indexLength = indexLength;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchHistoryPartitionDTO{" +
+            "name='" + name + '\'' +
+            ", lessThan=" + lessThan +
+            ", rows=" + rows +
+            ", dataLength=" + dataLength +
+            ", indexLength=" + indexLength +
+            "}";
+    }
+}
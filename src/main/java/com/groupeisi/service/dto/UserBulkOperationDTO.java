@@ -0,0 +1,74 @@
+package com.groupeisi.service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * A DTO representing an operation applied to many users at once.
+ */
+public class UserBulkOperationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * What is applied to the users.
+     */
+    public enum Operation {
+        ACTIVATE,
+        DEACTIVATE,
+        /**
+         * Give the {@code authorities} to the users, on top of the ones they already have.
+         */
+        ADD_AUTHORITIES,
+        /**
+         * Take the {@code authorities} away from the users.
+         */
+        REMOVE_AUTHORITIES,
+    }
+
+    @NotNull
+    private Operation operation;
+
+    @NotEmpty
+    @Size(max = 10000)
+    private Set<String> logins;
+
+    private Set<String> authorities;
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Set<String> getLogins() {
+        return logins;
+    }
+
+    public void setLogins(Set<String> logins) {
+        this.logins = logins;
+    }
+
+    public Set<String> getAuthorities() {
+        return authorities;
+    }
+
+    public void setAuthorities(Set<String> authorities) {
+        this.authorities = authorities;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserBulkOperationDTO{" +
+            "operation=" + operation +
+            ", logins=" + (logins != null ? logins.size() : 0) +
+            ", authorities=" + authorities +
+            "}";
+    }
+}
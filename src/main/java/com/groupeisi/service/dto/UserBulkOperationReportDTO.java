@@ -0,0 +1,59 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of an operation applied to many users at once.
+ */
+public class UserBulkOperationReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long requested;
+
+    private long updated;
+
+    private List<String> notFound = new ArrayList<>();
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public void setRequested(long requested) {
+        this.requested = requested;
+    }
+
+    /**
+     * @return the number of users found, to whom the operation is applied.
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    /**
+     * @return the requested logins of no user.
+     */
+    public List<String> getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(List<String> notFound) {
+        this.notFound = notFound;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserBulkOperationReportDTO{" +
+            "requested=" + requested +
+            ", updated=" + updated +
+            ", notFound=" + notFound.size() +
+            "}";
+    }
+}
@@ -0,0 +1,169 @@
+package com.groupeisi.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a bulk user provisioning.
+ */
+public class UserProvisioningReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long rows;
+
+    private long created;
+
+    private long rejected;
+
+    private long elapsedMs;
+
+    private long rowsPerSecond;
+
+    private List<RowResultDTO> results = new ArrayList<>();
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * @return the result of every row, in the order of the upload.
+     */
+    public List<RowResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<RowResultDTO> results) {
+        this.results = results;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserProvisioningReportDTO{" +
+            "rows=" + rows +
+            ", created=" + created +
+            ", rejected=" + rejected +
+            ", elapsedMs=" + elapsedMs +
+            ", rowsPerSecond=" + rowsPerSecond +
+            "}";
+    }
+
+    /**
+     * Outcome of a row.
+     */
+    public enum Status {
+        CREATED,
+        REJECTED,
+    }
+
+    /**
+     * The result of a row of the upload.
+     */
+    public static class RowResultDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long line;
+
+        private String login;
+
+        private Status status;
+
+        private String reason;
+
+        public RowResultDTO() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowResultDTO(long line, String login, Status status, String reason) {
+            this.line = line;
+            this.login = login;
+            this.status = status;
+            this.reason = reason;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public void setLogin(String login) {
+            this.login = login;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        /**
+         * @return why the row is rejected, {@code null} for a created user.
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RowResultDTO{" +
+                "line=" + line +
+                ", login='" + login + '\'' +
+                ", status=" + status +
+                ", reason='" + reason + '\'' +
+                "}";
+        }
+    }
+}
@@ -1,30 +1,245 @@
 package com.groupeisi.web.rest;
 
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.service.DayFinderResponseCache;
+import com.groupeisi.service.DayFinderStreams;
+import com.groupeisi.service.DayOfWeekCodec;
+import com.groupeisi.service.SearchHistoryRecorder;
+import com.groupeisi.service.dto.DayOfWeekSummaryDTO;
+import com.groupeisi.web.rest.errors.BadRequestAlertException;
+import com.groupeisi.web.rest.errors.ErrorConstants;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestParam;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.TextStyle;
-import java.util.HashMap;
-import java.util.Locale;
-import java.util.Map;
-import java.time.DayOfWeek;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+/**
+ * REST controller finding the day of week of a given date.
+ * <p>
+ * This is the hottest endpoint of the application: responses are encoded once by {@link DayOfWeekCodec}, kept in the
+ * {@link DayFinderResponseCache} and written straight to the servlet response, and invalid dates are answered with a
+ * pre-encoded {@code 400 (Bad Request)} instead of going through the exception translator.
+ */
 @RestController
 @RequestMapping("/services/calendar")
 public class CalendarDayFinderResource {
+
+    private static final String ENTITY_NAME = "dayFinder";
+
+    private final Logger log = LoggerFactory.getLogger(CalendarDayFinderResource.class);
+
+    private static final byte[] INVALID_DATE_BODY = (
+        "{\"type\":\"" +
+        ErrorConstants.DEFAULT_TYPE +
+        "\",\"title\":\"Bad Request\",\"status\":400,\"detail\":\"Invalid date, expected dd-MM-yyyy\",\"message\":\"error.http.400\"}"
+    ).getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Responses are pure functions of the date, so they can be cached forever by browsers and CDNs.
+     */
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * Responses never change, so they are all declared as last modified at the epoch.
+     */
+    private static final String LAST_MODIFIED = "Thu, 01 Jan 1970 00:00:00 GMT";
+
+    private final DayFinderResponseCache responseCache;
+
+    private final SearchHistoryRecorder searchHistoryRecorder;
+
+    private final ApplicationProperties.DayFinderRange rangeProperties;
+
+    public CalendarDayFinderResource(
+        DayFinderResponseCache responseCache,
+        SearchHistoryRecorder searchHistoryRecorder,
+        ApplicationProperties applicationProperties
+    ) {
+        this.responseCache = responseCache;
+        this.searchHistoryRecorder = searchHistoryRecorder;
+        this.rangeProperties = applicationProperties.getDayFinderRange();
+    }
+
+    /**
+     * {@code GET  /services/calendar/services/calendar/dayfinder} : find the day of week of a date.
+     * <p>
+     * Responses carry a strong {@code ETag} and immutable caching headers. Conditional requests for a valid date are
+     * answered with {@code 304 (Not Modified)} without being recorded, while invalid dates are always answered with
+     * {@code 400 (Bad Request)}, so that no error is ever cached as immutable. An {@code If-Modified-Since} header which is
+     * not a valid HTTP-date is ignored, as RFC 9110 requires. Other valid lookups are recorded in the
+     * search history by the {@link SearchHistoryRecorder}, in the background.
+     *
+     * @param dateString the date, formatted as {@code dd-MM-yyyy}.
+     * @param request the request, read for its conditional headers.
+     * @param response the response the result is written to, with status {@code 200 (OK)} and body
+     * {@code {"date":"dd/MM/yyyy","dayOfWeek":"MONDAY"}}, with status {@code 304 (Not Modified)} if the client already has it,
+     * or with status {@code 400 (Bad Request)} if the date is not valid.
+     * @throws IOException if the response could not be written.
+     */
     @GetMapping("/services/calendar/dayfinder")
-    public ResponseEntity<Map<String, String>> findDayOfWeek(@RequestParam("date") String dateString) {
-        LocalDate date = LocalDate.parse(dateString, DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        String dayOfWeekString = dayOfWeek.toString();
-        // Map pour stocker la réponse JSON
-        Map<String, String> response = new HashMap<>();
-        response.put("date", date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-        response.put("dayOfWeek", dayOfWeekString);
-        return ResponseEntity.ok(response);
+    public void findDayOfWeek(
+        @RequestParam(value = "date", required = false) String dateString,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        long epochDay = DayOfWeekCodec.parseEpochDay(dateString);
+        if (epochDay == DayOfWeekCodec.INVALID) {
+            write(response, HttpServletResponse.SC_BAD_REQUEST, MediaType.APPLICATION_PROBLEM_JSON_VALUE, INVALID_DATE_BODY);
+            return;
+        }
+        DayFinderResponseCache.Entry entry = responseCache.get(epochDay);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        boolean notModified = ifNoneMatch == null
+            ? hasValidIfModifiedSince(request)
+            : DayFinderResponseCache.matchesETag(ifNoneMatch, dateString);
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, entry.eTag());
+            setCachingHeaders(response);
+            return;
+        }
+        searchHistoryRecorder.record(epochDay);
+        response.setHeader(HttpHeaders.ETAG, entry.eTag());
+        setCachingHeaders(response);
+        write(response, HttpServletResponse.SC_OK, MediaType.APPLICATION_JSON_VALUE, entry.body());
+    }
+
+    /**
+     * {@code POST  /services/calendar/dayfinder/bulk} : find the day of week of many dates.
+     * <p>
+     * The request body is either a JSON array of dates, or an NDJSON stream with one date per line. Results are streamed
+     * back in the same order and in the same layout, one per date, without buffering the request nor the response.
+     *
+     * @param request the request the dates are read from.
+     * @param response the response the results are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the request could not be read or the response could not be written.
+     */
+    @PostMapping(value = "/dayfinder/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public void findDaysOfWeek(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DayFinderStreams.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+            ? DayFinderStreams.Format.NDJSON
+            : DayFinderStreams.Format.JSON_ARRAY;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(format == DayFinderStreams.Format.NDJSON ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        long count = DayFinderStreams.resolve(request.getInputStream(), response.getOutputStream(), format);
+        log.debug("Resolved {} dates in bulk", count);
+    }
+
+    /**
+     * {@code GET  /services/calendar/dayfinder/range} : stream the day of week of every date of a range.
+     * <p>
+     * Dates are generated lazily while the response is written, as a JSON array, or as NDJSON when the client
+     * accepts {@code application/x-ndjson}. A range holds at most {@code day-finder-range.max-days} dates.
+     *
+     * @param from the first date of the range, formatted as {@code dd-MM-yyyy}.
+     * @param to the last date of the range, inclusive, formatted as {@code dd-MM-yyyy}.
+     * @param accept the {@code Accept} header of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed results in body,
+     * or with status {@code 400 (Bad Request)} if the range is not valid or too large.
+     */
+    @GetMapping("/dayfinder/range")
+    public ResponseEntity<StreamingResponseBody> findDaysOfWeekInRange(
+        @RequestParam("from") String from,
+        @RequestParam("to") String to,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        log.debug("REST request to get the days of week from {} to {}", from, to);
+        long fromEpochDay = parseRangeBound(from);
+        long toEpochDay = parseRangeBound(to);
+        checkRange(fromEpochDay, toEpochDay);
+        if (toEpochDay - fromEpochDay + 1 > rangeProperties.getMaxDays()) {
+            throw new BadRequestAlertException(
+                "The range cannot hold more than " + rangeProperties.getMaxDays() + " dates",
+                ENTITY_NAME,
+                "rangetoolarge"
+            );
+        }
+        boolean ndjson = accept != null && acceptsNdjson(MediaType.parseMediaTypes(accept));
+        DayFinderStreams.Format format = ndjson ? DayFinderStreams.Format.NDJSON : DayFinderStreams.Format.JSON_ARRAY;
+        return ResponseEntity.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+            .body(out -> DayFinderStreams.writeRange(fromEpochDay, toEpochDay, out, format));
+    }
+
+    /**
+     * {@code GET  /services/calendar/dayfinder/range/summary} : count the occurrences of each weekday in a range.
+     *
+     * @param from the first date of the range, formatted as {@code dd-MM-yyyy}.
+     * @param to the last date of the range, inclusive, formatted as {@code dd-MM-yyyy}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the weekday counts in body,
+     * or with status {@code 400 (Bad Request)} if the range is not valid.
+     */
+    @GetMapping("/dayfinder/range/summary")
+    public ResponseEntity<DayOfWeekSummaryDTO> summarizeDaysOfWeekInRange(@RequestParam("from") String from, @RequestParam("to") String to) {
+        log.debug("REST request to count the days of week from {} to {}", from, to);
+        long fromEpochDay = parseRangeBound(from);
+        long toEpochDay = parseRangeBound(to);
+        checkRange(fromEpochDay, toEpochDay);
+        return ResponseEntity.ok(
+            new DayOfWeekSummaryDTO(formatDate(fromEpochDay), formatDate(toEpochDay), DayOfWeekCodec.countDaysOfWeek(fromEpochDay, toEpochDay))
+        );
+    }
+
+    private static long parseRangeBound(String date) {
+        long epochDay = DayOfWeekCodec.parseEpochDay(date);
+        if (epochDay == DayOfWeekCodec.INVALID) {
+            throw new BadRequestAlertException("Invalid date, expected dd-MM-yyyy", ENTITY_NAME, "dateinvalid");
+        }
+        return epochDay;
+    }
+
+    /**
+     * Responses are last modified at the epoch, so any valid {@code If-Modified-Since} date from the epoch on is satisfied.
+     */
+    private static boolean hasValidIfModifiedSince(HttpServletRequest request) {
+        try {
+            return request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE) >= 0;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void checkRange(long fromEpochDay, long toEpochDay) {
+        if (fromEpochDay > toEpochDay) {
+            throw new BadRequestAlertException("The range cannot end before it starts", ENTITY_NAME, "rangeinvalid");
+        }
+    }
+
+    private static boolean acceptsNdjson(List<MediaType> mediaTypes) {
+        return mediaTypes.stream().anyMatch(mediaType -> !mediaType.isWildcardType() && MediaType.APPLICATION_NDJSON.includes(mediaType));
+    }
+
+    private static String formatDate(long epochDay) {
+        byte[] date = new byte[DayOfWeekCodec.DATE_LENGTH];
+        DayOfWeekCodec.writeDate(epochDay, (byte) '/', date, 0);
+        return new String(date, StandardCharsets.US_ASCII);
+    }
+
+    private static void setCachingHeaders(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+    }
+
+    private static void write(HttpServletResponse response, int status, String contentType, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(contentType);
+        response.setContentLength(body.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(body);
+        out.flush();
     }
 }
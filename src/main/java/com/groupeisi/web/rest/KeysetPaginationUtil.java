@@ -0,0 +1,46 @@
+package com.groupeisi.web.rest;
+
+import com.groupeisi.service.KeysetSlice;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling the headers of a listing by keyset pagination, which follows a continuation token in the
+ * {@code cursor} parameter instead of a page number.
+ */
+final class KeysetPaginationUtil {
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate the {@code Link} header to the next and the first slices, and the {@code X-Total-Count} header when a
+     * count is given.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the slice sent.
+     * @param totalCount the number of elements, {@code null} to leave the header out.
+     * @return the headers.
+     */
+    static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, KeysetSlice<?> slice, Long totalCount) {
+        HttpHeaders headers = new HttpHeaders();
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, slice.getNextCursor(), slice.getSize(), "next"));
+        }
+        links.add(prepareLink(uriBuilder, "", slice.getSize(), "first"));
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, int pageSize, String relType) {
+        String uri = uriBuilder.replaceQueryParam("page").replaceQueryParam("cursor", cursor).replaceQueryParam("size", pageSize).toUriString();
+        return "<" + uri.replace(",", "%2C").replace(";", "%3B") + ">; rel=\"" + relType + "\"";
+    }
+}
@@ -1,7 +1,11 @@
 package com.groupeisi.web.rest;
 
+import com.groupeisi.service.InvalidCursorException;
+import com.groupeisi.service.KeysetSlice;
+import com.groupeisi.service.UserQueryService;
 import com.groupeisi.service.UserService;
 import com.groupeisi.service.dto.UserDTO;
+import com.groupeisi.web.rest.errors.BadRequestAlertException;
 import java.util.*;
 import java.util.Collections;
 import org.slf4j.Logger;
@@ -28,23 +32,50 @@ public class PublicUserResource {
 
     private final UserService userService;
 
-    public PublicUserResource(UserService userService) {
+    private final UserQueryService userQueryService;
+
+    public PublicUserResource(UserService userService, UserQueryService userQueryService) {
         this.userService = userService;
+        this.userQueryService = userQueryService;
     }
 
     /**
      * {@code GET /users} : get all users with only public information - calling this method is allowed for anyone.
+     * <p>
+     * With a {@code cursor} parameter, empty for the first slice, the users are read by keyset pagination instead of at
+     * an offset, sorted by id or by login only: the {@code Link} header holds the continuation token of the next slice,
+     * and the {@code X-Total-Count} header is only sent with {@code count=true}, from a count cached for a while.
      *
      * @param pageable the pagination information.
+     * @param cursor the continuation token of the slice, for keyset pagination.
+     * @param count whether a cursor listing should send the approximate number of users.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllPublicUsers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<UserDTO>> getAllPublicUsers(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "count", defaultValue = "false") boolean count
+    ) {
         log.debug("REST request to get all public User names");
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
 
+        if (cursor != null) {
+            KeysetSlice<UserDTO> slice;
+            try {
+                slice = userQueryService.findPublicUsers(cursor, pageable);
+            } catch (InvalidCursorException e) {
+                throw new BadRequestAlertException(e.getMessage(), "user", "invalidcursor");
+            }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                count ? userQueryService.countPublicUsers() : null
+            );
+            return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+        }
         final Page<UserDTO> page = userService.getAllPublicUsers(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
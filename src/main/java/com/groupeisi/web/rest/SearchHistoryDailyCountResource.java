@@ -0,0 +1,81 @@
+package com.groupeisi.web.rest;
+
+import com.groupeisi.service.SearchHistoryDailyCountService;
+import com.groupeisi.service.dto.SearchHistoryDailyCountDTO;
+import com.groupeisi.web.rest.errors.BadRequestAlertException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller reading the number of lookups of each date, from the {@code search_history_daily_count} aggregate.
+ */
+@RestController
+@RequestMapping("/api/search-history-daily-counts")
+public class SearchHistoryDailyCountResource {
+
+    private static final String ENTITY_NAME = "searchHistoryDailyCount";
+
+    static final int MAX_TOP_LIMIT = 1000;
+
+    /**
+     * Longest histogram range, about ten years.
+     */
+    static final long MAX_HISTOGRAM_DAYS = 3660;
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryDailyCountResource.class);
+
+    private final SearchHistoryDailyCountService searchHistoryDailyCountService;
+
+    public SearchHistoryDailyCountResource(SearchHistoryDailyCountService searchHistoryDailyCountService) {
+        this.searchHistoryDailyCountService = searchHistoryDailyCountService;
+    }
+
+    /**
+     * {@code GET  /search-history-daily-counts} : get the number of lookups of each date of a range.
+     *
+     * @param from the first date of the range, inclusive.
+     * @param to the last date of the range, inclusive.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the looked up dates of the range in body, in order,
+     * or with status {@code 400 (Bad Request)} if the range is not valid.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<SearchHistoryDailyCountDTO>> getSearchHistoryDailyCounts(
+        @RequestParam("from") LocalDate from,
+        @RequestParam("to") LocalDate to
+    ) {
+        log.debug("REST request to get the SearchHistory daily counts from {} to {}", from, to);
+        if (from.isAfter(to)) {
+            throw new BadRequestAlertException("The range cannot end before it starts", ENTITY_NAME, "rangeinvalid");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_HISTOGRAM_DAYS) {
+            throw new BadRequestAlertException("The range cannot be longer than " + MAX_HISTOGRAM_DAYS + " days", ENTITY_NAME, "rangetoolong");
+        }
+        return ResponseEntity.ok(searchHistoryDailyCountService.findBetween(from, to));
+    }
+
+    /**
+     * {@code GET  /search-history-daily-counts/top} : get the most looked up dates.
+     *
+     * @param limit the maximum number of dates, up to {@value #MAX_TOP_LIMIT}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the dates in body, by decreasing number of lookups,
+     * or with status {@code 400 (Bad Request)} if the limit is not valid.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<SearchHistoryDailyCountDTO>> getTopSearchHistoryDailyCounts(
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to get the {} most looked up dates", limit);
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            throw new BadRequestAlertException("The limit must be between 1 and " + MAX_TOP_LIMIT, ENTITY_NAME, "limitinvalid");
+        }
+        return ResponseEntity.ok(searchHistoryDailyCountService.findTop(limit));
+    }
+}
@@ -2,19 +2,45 @@ package com.groupeisi.web.rest;
 
 import com.groupeisi.domain.SearchHistory;
 import com.groupeisi.repository.SearchHistoryRepository;
+import com.groupeisi.service.SearchHistoryExporter;
+import com.groupeisi.service.SearchHistoryFeed;
+import com.groupeisi.service.SearchHistoryImporter;
+import com.groupeisi.service.SearchHistoryQueryService;
+import com.groupeisi.service.criteria.SearchHistoryCriteria;
+import com.groupeisi.service.dto.SearchHistoryDTO;
+import com.groupeisi.service.dto.SearchHistoryImportReportDTO;
 import com.groupeisi.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -29,13 +55,33 @@ public class SearchHistoryResource {
 
     private static final String ENTITY_NAME = "searchHistory";
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final SearchHistoryRepository searchHistoryRepository;
 
-    public SearchHistoryResource(SearchHistoryRepository searchHistoryRepository) {
+    private final SearchHistoryQueryService searchHistoryQueryService;
+
+    private final SearchHistoryExporter searchHistoryExporter;
+
+    private final SearchHistoryImporter searchHistoryImporter;
+
+    private final SearchHistoryFeed searchHistoryFeed;
+
+    public SearchHistoryResource(
+        SearchHistoryRepository searchHistoryRepository,
+        SearchHistoryQueryService searchHistoryQueryService,
+        SearchHistoryExporter searchHistoryExporter,
+        SearchHistoryImporter searchHistoryImporter,
+        SearchHistoryFeed searchHistoryFeed
+    ) {
         this.searchHistoryRepository = searchHistoryRepository;
+        this.searchHistoryQueryService = searchHistoryQueryService;
+        this.searchHistoryExporter = searchHistoryExporter;
+        this.searchHistoryImporter = searchHistoryImporter;
+        this.searchHistoryFeed = searchHistoryFeed;
     }
 
     /**
@@ -46,7 +92,7 @@ public class SearchHistoryResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
-    public ResponseEntity<SearchHistory> createSearchHistory(@RequestBody SearchHistory searchHistory) throws URISyntaxException {
+    public ResponseEntity<SearchHistory> createSearchHistory(@Valid @RequestBody SearchHistory searchHistory) throws URISyntaxException {
         log.debug("REST request to save SearchHistory : {}", searchHistory);
         if (searchHistory.getId() != null) {
             throw new BadRequestAlertException("A new searchHistory cannot already have an ID", ENTITY_NAME, "idexists");
@@ -57,20 +103,52 @@ public class SearchHistoryResource {
             .body(searchHistory);
     }
 
+    /**
+     * {@code POST  /search-histories/import} : import searchHistories in bulk.
+     * <p>
+     * The request body is CSV, or NDJSON, and is read incrementally. Invalid rows are rejected and reported,
+     * the other ones are inserted in batches and committed periodically, outside of the request transaction.
+     *
+     * @param request the request the rows are read from.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the import report in body.
+     * @throws IOException if the request could not be read.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<SearchHistoryImportReportDTO> importSearchHistories(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import SearchHistories");
+        SearchHistoryImporter.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+            ? SearchHistoryImporter.Format.CSV
+            : SearchHistoryImporter.Format.NDJSON;
+        SearchHistoryImportReportDTO report = searchHistoryImporter.importSearchHistories(request.getInputStream(), format);
+        return ResponseEntity.ok()
+            .headers(
+                HeaderUtil.createAlert(
+                    applicationName,
+                    report.getImported() + " searchHistories are imported, " + report.getRejected() + " are rejected",
+                    String.valueOf(report.getImported())
+                )
+            )
+            .body(report);
+    }
+
     /**
      * {@code PUT  /search-histories/:id} : Updates an existing searchHistory.
+     * <p>
+     * The searchHistory is read and locked with a single query, then updated in place when the transaction commits.
      *
      * @param id the id of the searchHistory to save.
      * @param searchHistory the searchHistory to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated searchHistory,
      * or with status {@code 400 (Bad Request)} if the searchHistory is not valid,
+     * or with status {@code 404 (Not Found)} if the searchHistory is not found,
      * or with status {@code 500 (Internal Server Error)} if the searchHistory couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SearchHistory> updateSearchHistory(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody SearchHistory searchHistory
+        @Valid @RequestBody SearchHistory searchHistory
     ) throws URISyntaxException {
         log.debug("REST request to update SearchHistory : {}, {}", id, searchHistory);
         if (searchHistory.getId() == null) {
@@ -80,18 +158,20 @@ public class SearchHistoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!searchHistoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Optional<SearchHistory> result = searchHistoryRepository
+            .findOneWithLockById(id)
+            .map(existingSearchHistory -> existingSearchHistory.searchedDate(searchHistory.getSearchedDate()).dayOfWeek(searchHistory.getDayOfWeek()));
 
-        searchHistory = searchHistoryRepository.save(searchHistory);
-        return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, searchHistory.getId().toString()))
-            .body(searchHistory);
+        return ResponseUtil.wrapOrNotFound(
+            result,
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, searchHistory.getId().toString())
+        );
     }
 
     /**
      * {@code PATCH  /search-histories/:id} : Partial updates given fields of an existing searchHistory, field will ignore if it is null
+     * <p>
+     * The searchHistory is read and locked with a single query, then updated in place when the transaction commits.
      *
      * @param id the id of the searchHistory to save.
      * @param searchHistory the searchHistory to update.
@@ -104,7 +184,7 @@ public class SearchHistoryResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<SearchHistory> partialUpdateSearchHistory(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody SearchHistory searchHistory
+        @Valid @RequestBody SearchHistory searchHistory
     ) throws URISyntaxException {
         log.debug("REST request to partial update SearchHistory partially : {}, {}", id, searchHistory);
         if (searchHistory.getId() == null) {
@@ -114,12 +194,8 @@ public class SearchHistoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!searchHistoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
         Optional<SearchHistory> result = searchHistoryRepository
-            .findById(searchHistory.getId())
+            .findOneWithLockById(id)
             .map(existingSearchHistory -> {
                 if (searchHistory.getSearchedDate() != null) {
                     existingSearchHistory.setSearchedDate(searchHistory.getSearchedDate());
@@ -129,8 +205,7 @@ public class SearchHistoryResource {
                 }
 
                 return existingSearchHistory;
-            })
-            .map(searchHistoryRepository::save);
+            });
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -140,13 +215,93 @@ public class SearchHistoryResource {
 
     /**
      * {@code GET  /search-histories} : get all the searchHistories.
+     * <p>
+     * With {@code count=false}, the total count query is skipped: the {@code X-Total-Count} header is omitted and the
+     * {@code Link} header only holds the first, previous and next pages, which keeps deep pages cheap.
+     * The rows are read as DTOs, without managed entities.
      *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param count whether the total number of matching entities should be computed.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of searchHistories in body.
      */
     @GetMapping("")
-    public List<SearchHistory> getAllSearchHistories() {
-        log.debug("REST request to get all SearchHistories");
-        return searchHistoryRepository.findAll();
+    public ResponseEntity<List<SearchHistoryDTO>> getAllSearchHistories(
+        SearchHistoryCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "count", defaultValue = "true") boolean count
+    ) {
+        log.debug("REST request to get SearchHistories by criteria: {}", criteria);
+        if (!count) {
+            Slice<SearchHistoryDTO> slice = searchHistoryQueryService.findSliceByCriteria(criteria, pageable);
+            HttpHeaders headers = generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), slice);
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<SearchHistoryDTO> page = searchHistoryQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /search-histories/count} : count all the searchHistories.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> countSearchHistories(SearchHistoryCriteria criteria) {
+        log.debug("REST request to count SearchHistories by criteria: {}", criteria);
+        return ResponseEntity.ok().body(searchHistoryQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /search-histories/export} : export all the searchHistories.
+     * <p>
+     * Rows are streamed from the database to the response as they are read, so the export uses the same amount of
+     * memory whatever the size of the table. They are written as NDJSON, or as CSV when the client accepts {@code text/csv}.
+     *
+     * @param accept the {@code Accept} header of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed searchHistories in body.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSearchHistories(
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        log.debug("REST request to export SearchHistories");
+        boolean csv = accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(TEXT_CSV::equalsTypeAndSubtype);
+        SearchHistoryExporter.Format format = csv ? SearchHistoryExporter.Format.CSV : SearchHistoryExporter.Format.NDJSON;
+        return ResponseEntity.ok()
+            .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(csv ? "search-histories.csv" : "search-histories.ndjson").build().toString()
+            )
+            .body(out -> searchHistoryExporter.export(out, format));
+    }
+
+    /**
+     * {@code GET  /search-histories/feed} : stream the changes of the searchHistories as server-sent events.
+     * <p>
+     * Each committed change is sent as a {@code created}, {@code updated} or {@code deleted} event holding the
+     * searchHistory. Imports are not streamed. A subscriber that falls behind gets an {@code overflow} event and is
+     * disconnected; on reconnection, the missed events are replayed after the given event id, or a {@code reset} event
+     * is sent if they are no longer available.
+     *
+     * @param lastEventId the id of the last event received, to resume the feed after it.
+     * @param lastEventIdHeader the {@code Last-Event-ID} header sent by reconnecting clients, which takes precedence.
+     * @return the emitter of the events, with status {@code 200 (OK)},
+     * or status {@code 503 (Service Unavailable)} if there are too many subscribers.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SseEmitter getSearchHistoryFeed(
+        @RequestParam(value = "lastEventId", required = false) Long lastEventId,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader
+    ) {
+        log.debug("REST request to subscribe to the SearchHistory feed after event {}", lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+        return searchHistoryFeed
+            .subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many subscribers"));
     }
 
     /**
@@ -176,4 +331,28 @@ public class SearchHistoryResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<?> slice) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.getPageable().isUnpaged()) {
+            return headers;
+        }
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev"));
+        }
+        links.add(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder.replaceQueryParam("page", pageNumber).replaceQueryParam("size", pageSize).toUriString();
+        return "<" + uri.replace(",", "%2C").replace(";", "%3B") + ">; rel=\"" + relType + "\"";
+    }
 }
@@ -4,18 +4,28 @@ import com.groupeisi.config.Constants;
 import com.groupeisi.domain.User;
 import com.groupeisi.repository.UserRepository;
 import com.groupeisi.security.AuthoritiesConstants;
+import com.groupeisi.service.InvalidCursorException;
+import com.groupeisi.service.KeysetSlice;
 import com.groupeisi.service.MailService;
+import com.groupeisi.service.UserProvisioner;
+import com.groupeisi.service.UserQueryService;
 import com.groupeisi.service.UserService;
 import com.groupeisi.service.dto.AdminUserDTO;
+import com.groupeisi.service.dto.UserBulkOperationDTO;
+import com.groupeisi.service.dto.UserBulkOperationReportDTO;
+import com.groupeisi.service.dto.UserProvisioningReportDTO;
 import com.groupeisi.web.rest.errors.BadRequestAlertException;
 import com.groupeisi.web.rest.errors.EmailAlreadyUsedException;
 import com.groupeisi.web.rest.errors.LoginAlreadyUsedException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.Collections;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +34,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -60,6 +71,8 @@ import tech.jhipster.web.util.ResponseUtil;
 @RequestMapping("/api/admin")
 public class UserResource {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
     private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(
         Arrays.asList(
             "id",
@@ -87,10 +100,22 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final UserProvisioner userProvisioner;
+
+    private final UserQueryService userQueryService;
+
+    public UserResource(
+        UserService userService,
+        UserRepository userRepository,
+        MailService mailService,
+        UserProvisioner userProvisioner,
+        UserQueryService userQueryService
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.userProvisioner = userProvisioner;
+        this.userQueryService = userQueryService;
     }
 
     /**
@@ -115,7 +140,7 @@ public class UserResource {
             // Lowercase the user login before comparing with database
         } else if (userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).isPresent()) {
             throw new LoginAlreadyUsedException();
-        } else if (userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).isPresent()) {
+        } else if (userRepository.findOneByEmail(StringUtils.lowerCase(userDTO.getEmail(), Locale.ENGLISH)).isPresent()) {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
@@ -129,6 +154,36 @@ public class UserResource {
         }
     }
 
+    /**
+     * {@code POST  /admin/users/provision} : Creates users in bulk.
+     * <p>
+     * The request body is CSV, or NDJSON, and is read incrementally. Each row is created as by {@code POST /admin/users},
+     * or rejected if it is invalid or its login or email is already in use, and every row gets a result in the report.
+     *
+     * @param request the request the users are read from.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the provisioning report in body.
+     * @throws IOException if the request could not be read.
+     */
+    @PostMapping(value = "/users/provision", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserProvisioningReportDTO> provisionUsers(HttpServletRequest request) throws IOException {
+        log.debug("REST request to provision Users");
+        UserProvisioner.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+            ? UserProvisioner.Format.CSV
+            : UserProvisioner.Format.NDJSON;
+        UserProvisioningReportDTO report = userProvisioner.provisionUsers(request.getInputStream(), format);
+        return ResponseEntity
+            .ok()
+            .headers(
+                HeaderUtil.createAlert(
+                    applicationName,
+                    report.getCreated() + " users are created, " + report.getRejected() + " are rejected",
+                    String.valueOf(report.getCreated())
+                )
+            )
+            .body(report);
+    }
+
     /**
      * {@code PUT /admin/users} : Updates an existing User.
      *
@@ -141,7 +196,7 @@ public class UserResource {
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<AdminUserDTO> updateUser(@Valid @RequestBody AdminUserDTO userDTO) {
         log.debug("REST request to update User : {}", userDTO);
-        Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
+        Optional<User> existingUser = userRepository.findOneByEmail(StringUtils.lowerCase(userDTO.getEmail(), Locale.ENGLISH));
         if (existingUser.isPresent() && (!existingUser.orElseThrow().getId().equals(userDTO.getId()))) {
             throw new EmailAlreadyUsedException();
         }
@@ -157,20 +212,85 @@ public class UserResource {
         );
     }
 
+    /**
+     * {@code POST /admin/users/bulk} : Applies an operation to many users at once.
+     * <p>
+     * The users are activated, deactivated, given or taken some authorities by set-based statements, in a single
+     * transaction. Unknown logins are ignored, and listed in the report.
+     *
+     * @param bulkOperation the operation and the logins of the users.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the report of the operation in body.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the authorities of an operation on authorities are missing or unknown.
+     */
+    @PostMapping("/users/bulk")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserBulkOperationReportDTO> applyBulkOperation(@Valid @RequestBody UserBulkOperationDTO bulkOperation) {
+        log.debug("REST request to apply a bulk operation to Users : {}", bulkOperation);
+        Set<String> authorities = bulkOperation.getAuthorities();
+        boolean onAuthorities =
+            bulkOperation.getOperation() == UserBulkOperationDTO.Operation.ADD_AUTHORITIES ||
+            bulkOperation.getOperation() == UserBulkOperationDTO.Operation.REMOVE_AUTHORITIES;
+        if (onAuthorities && (authorities == null || authorities.isEmpty())) {
+            throw new BadRequestAlertException(
+                "Authorities are required by " + bulkOperation.getOperation(),
+                "userManagement",
+                "authoritiesrequired"
+            );
+        }
+        if (authorities != null && !userService.getAuthorities().containsAll(authorities)) {
+            throw new BadRequestAlertException("Unknown authority", "userManagement", "authoritynotfound");
+        }
+        UserBulkOperationReportDTO report = userService.applyBulkOperation(bulkOperation);
+        return ResponseEntity
+            .ok()
+            .headers(
+                HeaderUtil.createAlert(
+                    applicationName,
+                    bulkOperation.getOperation() + " is applied to " + report.getUpdated() + " users",
+                    String.valueOf(report.getUpdated())
+                )
+            )
+            .body(report);
+    }
+
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
+     * <p>
+     * With a {@code cursor} parameter, empty for the first slice, the users are read by keyset pagination instead of at
+     * an offset: the {@code Link} header holds the continuation token of the next slice, and the {@code X-Total-Count}
+     * header is only sent with {@code count=true}, from a count cached for a while.
      *
      * @param pageable the pagination information.
+     * @param cursor the continuation token of the slice, for keyset pagination.
+     * @param count whether a cursor listing should send the approximate number of users.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<List<AdminUserDTO>> getAllUsers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<AdminUserDTO>> getAllUsers(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "count", defaultValue = "false") boolean count
+    ) {
         log.debug("REST request to get all User for an admin");
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
 
+        if (cursor != null) {
+            KeysetSlice<AdminUserDTO> slice;
+            try {
+                slice = userQueryService.findManagedUsers(cursor, pageable);
+            } catch (InvalidCursorException e) {
+                throw new BadRequestAlertException(e.getMessage(), "userManagement", "invalidcursor");
+            }
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                count ? userQueryService.countManagedUsers() : null
+            );
+            return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+        }
         final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
@@ -0,0 +1,91 @@
+package com.groupeisi.benchmark;
+
+import com.groupeisi.service.DayOfWeekCodec;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH comparison of the day finder lookup before and after {@link DayOfWeekCodec}.
+ * <p>
+ * Run it from the IDE, or with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.groupeisi.benchmark.DayFinderBenchmark}; add {@code -prof gc} to the options to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DayFinderBenchmark {
+
+    private final String[] dates = new String[1024];
+
+    private final byte[] buffer = new byte[DayOfWeekCodec.MAX_ENCODED_LENGTH];
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        LocalDate date = LocalDate.of(1990, 1, 1);
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = date.plusDays(i * 37L).format(formatter);
+        }
+    }
+
+    private String nextDate() {
+        return dates[index++ & (dates.length - 1)];
+    }
+
+    /**
+     * The implementation of {@code CalendarDayFinderResource.findDayOfWeek} before the codec was introduced.
+     */
+    @Benchmark
+    public Map<String, String> legacy() {
+        LocalDate date = LocalDate.parse(nextDate(), DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        Map<String, String> response = new HashMap<>();
+        response.put("date", date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+        response.put("dayOfWeek", dayOfWeek.toString());
+        return response;
+    }
+
+    @Benchmark
+    public void codec(Blackhole blackhole) {
+        long epochDay = DayOfWeekCodec.parseEpochDay(nextDate());
+        blackhole.consume(DayOfWeekCodec.encode(epochDay, buffer, 0));
+        blackhole.consume(buffer);
+    }
+
+    /**
+     * Invalid input used to cost a {@link java.time.format.DateTimeParseException} with its stack trace.
+     */
+    @Benchmark
+    public Object legacyInvalid() {
+        try {
+            return LocalDate.parse("31-02-2024x", DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public long codecInvalid() {
+        return DayOfWeekCodec.parseEpochDay("31-02-2024x");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(DayFinderBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.groupeisi.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.IntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ReadReplicaRoutingDataSource}.
+ * <p>
+ * A second schema of the test database stands in for a replica, and its heartbeat is stamped by the tests to simulate
+ * the replication lag. A second replica cannot be reached at all.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.read-replicas.enabled=true",
+        // the tests run the health checks themselves
+        "application.read-replicas.health-check-interval-ms=3600000",
+        "application.read-replicas.max-lag-ms=60000",
+        "application.read-replicas.replicas[0].name=standin",
+        "application.read-replicas.replicas[0].url=jdbc:mysql://localhost:3306/" +
+        ReadReplicaRoutingIT.REPLICA_SCHEMA +
+        "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
+        "application.read-replicas.replicas[1].name=unreachable",
+        "application.read-replicas.replicas[1].url=jdbc:mysql://localhost:1/examenJhipster?useSSL=false&connectTimeout=200",
+    }
+)
+class ReadReplicaRoutingIT {
+
+    static final String REPLICA_SCHEMA = "examenJhipsterReplica";
+
+    private static final String PRIMARY_SCHEMA = "examenJhipster";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void createReplica() {
+        // outside of a read-only transaction, everything goes to the primary
+        jdbcTemplate.execute("CREATE DATABASE IF NOT EXISTS " + REPLICA_SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + REPLICA_SCHEMA + ".replica_heartbeat (id integer PRIMARY KEY, beat datetime(3) NOT NULL)");
+    }
+
+    @AfterEach
+    public void dropReplica() {
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + REPLICA_SCHEMA);
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToTheReplica() {
+        stampReplicaHeartbeat("UTC_TIMESTAMP(3)");
+        readReplicaRoutingDataSource.checkReplicas();
+
+        assertThat(readReplicaRoutingDataSource.getUsableReplicas()).containsExactly("standin");
+        assertThat(currentSchema(true)).isEqualToIgnoringCase(REPLICA_SCHEMA);
+        assertThat(currentSchema(false)).isEqualToIgnoringCase(PRIMARY_SCHEMA);
+        assertThat(jdbcTemplate.queryForObject("SELECT DATABASE()", String.class)).isEqualToIgnoringCase(PRIMARY_SCHEMA);
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToThePrimary() {
+        stampReplicaHeartbeat("UTC_TIMESTAMP(3) - INTERVAL 1 HOUR");
+        readReplicaRoutingDataSource.checkReplicas();
+
+        assertThat(readReplicaRoutingDataSource.getUsableReplicas()).isEmpty();
+        assertThat(currentSchema(true)).isEqualToIgnoringCase(PRIMARY_SCHEMA);
+
+        // it gets the reads back once it has caught up
+        stampReplicaHeartbeat("UTC_TIMESTAMP(3)");
+        readReplicaRoutingDataSource.checkReplicas();
+
+        assertThat(currentSchema(true)).isEqualToIgnoringCase(REPLICA_SCHEMA);
+    }
+
+    @Test
+    void testBrokenReplicaFallsBackToThePrimary() {
+        stampReplicaHeartbeat("UTC_TIMESTAMP(3)");
+        readReplicaRoutingDataSource.checkReplicas();
+        jdbcTemplate.execute("DROP TABLE " + REPLICA_SCHEMA + ".replica_heartbeat");
+        readReplicaRoutingDataSource.checkReplicas();
+
+        assertThat(readReplicaRoutingDataSource.getUsableReplicas()).isEmpty();
+        assertThat(currentSchema(true)).isEqualToIgnoringCase(PRIMARY_SCHEMA);
+    }
+
+    private void stampReplicaHeartbeat(String beat) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("REPLACE INTO " + REPLICA_SCHEMA + ".replica_heartbeat (id, beat) VALUES (1, " + beat + ")")
+        );
+    }
+
+    private String currentSchema(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+}
@@ -0,0 +1,32 @@
+package com.groupeisi.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.DayOfWeek;
+import org.junit.jupiter.api.Test;
+
+class DayOfWeekAttributeConverterTest {
+
+    private final DayOfWeekAttributeConverter converter = new DayOfWeekAttributeConverter();
+
+    @Test
+    void testRoundTrip() {
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            Byte value = converter.convertToDatabaseColumn(dayOfWeek.name());
+            assertThat(value).isEqualTo((byte) dayOfWeek.getValue());
+            assertThat(converter.convertToEntityAttribute(value)).isEqualTo(dayOfWeek.name());
+        }
+    }
+
+    @Test
+    void testNull() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    void testInvalidName() {
+        assertThatIllegalArgumentException().isThrownBy(() -> converter.convertToDatabaseColumn("monday"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.groupeisi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.IntegrationTest;
+import com.groupeisi.domain.Authority;
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.service.SearchHistoryDailyCountService;
+import com.groupeisi.service.SearchHistoryRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the second level cache regions of {@link SearchHistory} and {@link Authority}.
+ * <p>
+ * Every repository call runs in its own transaction, so that reads go through the second level cache.
+ */
+@IntegrationTest
+class SearchHistoryCacheIT {
+
+    private static final LocalDate SEARCHED_DATE = LocalDate.of(1800, 1, 6);
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SearchHistoryRecorder searchHistoryRecorder;
+
+    @Autowired
+    private SearchHistoryDailyCountService searchHistoryDailyCountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        searchHistoryRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void testFindByIdHitsTheEntityRegion() {
+        SearchHistory searchHistory = save(new SearchHistory().searchedDate(SEARCHED_DATE).dayOfWeek("MONDAY"));
+        entityManagerFactory.getCache().evict(SearchHistory.class);
+        double hits = gets(SearchHistory.class.getName(), "hit");
+        double misses = gets(SearchHistory.class.getName(), "miss");
+
+        assertThat(searchHistoryRepository.findById(searchHistory.getId())).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(SearchHistory.class, searchHistory.getId())).isTrue();
+        assertThat(searchHistoryRepository.findById(searchHistory.getId())).isPresent();
+
+        assertThat(gets(SearchHistory.class.getName(), "miss")).isGreaterThan(misses);
+        assertThat(gets(SearchHistory.class.getName(), "hit")).isGreaterThan(hits);
+    }
+
+    @Test
+    void testUpdateRefreshesTheEntityRegion() {
+        SearchHistory searchHistory = save(new SearchHistory().searchedDate(SEARCHED_DATE).dayOfWeek("MONDAY"));
+        searchHistoryRepository.findById(searchHistory.getId());
+
+        // same as a PUT or a PATCH: the row is locked, then changed in place
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            searchHistoryRepository.findOneWithLockById(searchHistory.getId()).orElseThrow().searchedDate(SEARCHED_DATE.plusDays(1)).dayOfWeek("TUESDAY")
+        );
+        assertThat(searchHistoryRepository.findById(searchHistory.getId()))
+            .hasValueSatisfying(found -> assertThat(found.getDayOfWeek()).isEqualTo("TUESDAY"));
+
+        // a detached entity is merged
+        SearchHistory updated = new SearchHistory().id(searchHistory.getId()).searchedDate(SEARCHED_DATE.plusDays(2)).dayOfWeek("WEDNESDAY");
+        searchHistoryRepository.save(updated);
+        assertThat(searchHistoryRepository.findById(searchHistory.getId()))
+            .hasValueSatisfying(found -> assertThat(found.getDayOfWeek()).isEqualTo("WEDNESDAY"));
+    }
+
+    @Test
+    void testDeleteEvictsTheEntityRegion() {
+        SearchHistory searchHistory = save(new SearchHistory().searchedDate(SEARCHED_DATE).dayOfWeek("MONDAY"));
+        searchHistoryRepository.findById(searchHistory.getId());
+
+        searchHistoryRepository.deleteById(searchHistory.getId());
+
+        assertThat(entityManagerFactory.getCache().contains(SearchHistory.class, searchHistory.getId())).isFalse();
+        assertThat(searchHistoryRepository.findById(searchHistory.getId())).isEmpty();
+    }
+
+    @Test
+    void testRecordedLookupsStayOutOfTheEntityRegion() {
+        double puts = puts(SearchHistory.class.getName());
+        try {
+            for (int i = 0; i < 3; i++) {
+                searchHistoryRecorder.record(SEARCHED_DATE.toEpochDay());
+            }
+            searchHistoryRecorder.flush();
+
+            assertThat(searchHistoryRepository.countBySearchedDateBetween(SEARCHED_DATE, SEARCHED_DATE)).isEqualTo(3);
+            assertThat(puts(SearchHistory.class.getName())).isEqualTo(puts);
+        } finally {
+            searchHistoryDailyCountService.flush();
+            jdbcTemplate.update("DELETE FROM search_history WHERE searched_date = ?", SEARCHED_DATE);
+            jdbcTemplate.update("DELETE FROM search_history_daily_count WHERE searched_date = ?", SEARCHED_DATE);
+        }
+    }
+
+    @Test
+    void testFindAllAuthoritiesHitsTheQueryRegion() {
+        List<Authority> authorities = authorityRepository.findAll();
+        double hits = gets(AuthorityRepository.AUTHORITY_QUERIES_CACHE, "hit");
+
+        assertThat(authorityRepository.findAll()).isEqualTo(authorities);
+
+        assertThat(gets(AuthorityRepository.AUTHORITY_QUERIES_CACHE, "hit")).isGreaterThan(hits);
+    }
+
+    private SearchHistory save(SearchHistory searchHistory) {
+        SearchHistory saved = searchHistoryRepository.save(searchHistory);
+        ids.add(saved.getId());
+        return saved;
+    }
+
+    private double puts(String cache) {
+        return meterRegistry.get("cache.puts").tag("cache", cache).functionCounter().count();
+    }
+
+    private double gets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
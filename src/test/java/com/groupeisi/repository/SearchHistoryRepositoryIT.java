@@ -0,0 +1,205 @@
+package com.groupeisi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.IntegrationTest;
+import com.groupeisi.config.SqlStatementRecorder;
+import com.groupeisi.domain.DayOfWeekAttributeConverter;
+import com.groupeisi.domain.SearchHistory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link SearchHistoryRepository}.
+ */
+@IntegrationTest
+@Transactional
+class SearchHistoryRepositoryIT {
+
+    private static final int ENTITY_COUNT = 100;
+
+    private static final DayOfWeekAttributeConverter DAY_OF_WEEK_CONVERTER = new DayOfWeekAttributeConverter();
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testSaveAllIsSentAsJdbcBatches() {
+        List<SearchHistory> searchHistories = createEntities();
+
+        searchHistoryRepository.saveAll(searchHistories);
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ENTITY_COUNT);
+        // 4 batches of 25 inserts, plus a couple of id block reservations, instead of one statement per row with IDENTITY
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(12);
+        assertThat(searchHistories).allMatch(searchHistory -> searchHistory.getId() != null && searchHistory.getId() >= 1500);
+    }
+
+    @Test
+    void testCoveringQueries() {
+        searchHistoryRepository.saveAllAndFlush(createEntities());
+        LocalDate from = LocalDate.of(1900, 1, 1);
+        LocalDate to = LocalDate.of(1900, 1, 31);
+
+        assertThat(searchHistoryRepository.countBySearchedDateBetween(from, to)).isEqualTo(31);
+        // January 1900 starts on a Monday
+        assertThat(searchHistoryRepository.countByDayOfWeekAndSearchedDateBetween("MONDAY", from, to)).isEqualTo(5);
+        Slice<SearchHistory> mondays = searchHistoryRepository.findByDayOfWeekAndSearchedDateBetweenOrderBySearchedDateAscIdAsc(
+            "MONDAY",
+            from,
+            to,
+            PageRequest.of(0, 2)
+        );
+        assertThat(mondays.getContent())
+            .extracting(SearchHistory::getSearchedDate)
+            .containsExactly(LocalDate.of(1900, 1, 1), LocalDate.of(1900, 1, 8));
+        assertThat(mondays.hasNext()).isTrue();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testCountByDateRangeOnlyReadsTheDateIndex() {
+        LocalDate from = LocalDate.of(1900, 1, 8);
+        LocalDate to = LocalDate.of(1900, 1, 14);
+        List<SearchHistory> searchHistories = saveAndAnalyze();
+        try {
+            assertCoveredBy(
+                "idx_search_history_searched_date",
+                () -> searchHistoryRepository.countBySearchedDateBetween(from, to),
+                from,
+                to
+            );
+        } finally {
+            searchHistoryRepository.deleteAllInBatch(searchHistories);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testCountByDayOfWeekAndDateRangeOnlyReadsTheCompositeIndex() {
+        LocalDate from = LocalDate.of(1900, 1, 8);
+        LocalDate to = LocalDate.of(1900, 2, 14);
+        List<SearchHistory> searchHistories = saveAndAnalyze();
+        try {
+            assertCoveredBy(
+                "idx_search_history_day_of_week_searched_date",
+                () -> searchHistoryRepository.countByDayOfWeekAndSearchedDateBetween("MONDAY", from, to),
+                DAY_OF_WEEK_CONVERTER.convertToDatabaseColumn("MONDAY"),
+                from,
+                to
+            );
+        } finally {
+            searchHistoryRepository.deleteAllInBatch(searchHistories);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testFindByDayOfWeekAndDateRangeOnlyReadsTheCompositeIndex() {
+        LocalDate from = LocalDate.of(1900, 1, 8);
+        LocalDate to = LocalDate.of(1900, 2, 14);
+        List<SearchHistory> searchHistories = saveAndAnalyze();
+        try {
+            String plan = assertCoveredBy(
+                "idx_search_history_day_of_week_searched_date",
+                () ->
+                    searchHistoryRepository.findByDayOfWeekAndSearchedDateBetweenOrderBySearchedDateAscIdAsc(
+                        "MONDAY",
+                        from,
+                        to,
+                        PageRequest.of(0, 2)
+                    ),
+                DAY_OF_WEEK_CONVERTER.convertToDatabaseColumn("MONDAY"),
+                from,
+                to,
+                // a slice reads one more row than its size, to know whether there is a next one
+                3
+            );
+            assertThat(plan).doesNotContain("Using filesort");
+        } finally {
+            searchHistoryRepository.deleteAllInBatch(searchHistories);
+        }
+    }
+
+    /**
+     * Commit the entities, then refresh the index statistics of the table, so that the plans of a table this small are
+     * the ones of a large one. {@code ANALYZE TABLE} commits implicitly, so the tests calling it cannot be transactional.
+     */
+    private List<SearchHistory> saveAndAnalyze() {
+        List<SearchHistory> searchHistories = searchHistoryRepository.saveAll(createEntities());
+        jdbcTemplate.execute("ANALYZE TABLE search_history");
+        return searchHistories;
+    }
+
+    /**
+     * Check the MySQL plan of the statement run by a repository method, as recorded by the {@link SqlStatementRecorder},
+     * with the values the method binds to it.
+     *
+     * @return the {@code Extra} column of the plan.
+     */
+    private String assertCoveredBy(String index, Runnable repositoryCall, Object... parameters) {
+        SqlStatementRecorder.start();
+        repositoryCall.run();
+        List<String> statements = SqlStatementRecorder.stop();
+        assertThat(statements).hasSize(1);
+        String sql = statements.get(0);
+        assertThat(sql.chars().filter(c -> c == '?').count()).as("parameters of %s", sql).isEqualTo(parameters.length);
+        Query explain = em.createNativeQuery("EXPLAIN " + sql);
+        for (int i = 0; i < parameters.length; i++) {
+            explain.setParameter(i + 1, parameters[i]);
+        }
+        Object[] plan = (Object[]) explain.getResultList().get(0);
+        // EXPLAIN columns: id, select_type, table, partitions, type, possible_keys, key, key_len, ref, rows, filtered, Extra
+        assertThat(plan[6]).as("index used by %s", sql).isEqualTo(index);
+        assertThat((String) plan[11]).contains("Using index");
+        return (String) plan[11];
+    }
+
+    private static List<SearchHistory> createEntities() {
+        List<SearchHistory> searchHistories = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            LocalDate date = LocalDate.of(1900, 1, 1).plusDays(i);
+            searchHistories.add(new SearchHistory().searchedDate(date).dayOfWeek(date.getDayOfWeek().name()));
+        }
+        return searchHistories;
+    }
+}
@@ -0,0 +1,125 @@
+package com.groupeisi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.IntegrationTest;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Measure the storage of {@code search_history} rows, with the weekday stored as a name in a {@code varchar(255)}
+ * as it used to be, and as a number in a {@code TINYINT} as it is now.
+ * <p>
+ * Both layouts are filled with the same rows, in scratch tables with the same indexes as {@code search_history}.
+ */
+@IntegrationTest
+class SearchHistoryStorageIT {
+
+    private static final int ROW_COUNT = 100_000;
+
+    private static final String VARCHAR_TABLE = "search_history_layout_varchar";
+
+    private static final String TINYINT_TABLE = "search_history_layout_tinyint";
+
+    private static final String DIGITS =
+        "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4" +
+        " UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9)";
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryStorageIT.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testTinyintLayoutIsSmaller() {
+        long[][] sizes = jdbcTemplate.execute(
+            (ConnectionCallback<long[][]>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    // information_schema caches table statistics for a day by default
+                    statement.execute("SET SESSION information_schema_stats_expiry = 0");
+                    try {
+                        long[] before = measure(statement, VARCHAR_TABLE, "varchar(255)", "UPPER(DAYNAME(d))");
+                        long[] after = measure(statement, TINYINT_TABLE, "tinyint", "WEEKDAY(d) + 1");
+                        return new long[][] { before, after };
+                    } finally {
+                        statement.execute("DROP TABLE IF EXISTS " + VARCHAR_TABLE);
+                        statement.execute("DROP TABLE IF EXISTS " + TINYINT_TABLE);
+                    }
+                }
+            }
+        );
+        long[] before = sizes[0];
+        long[] after = sizes[1];
+        log.info(
+            "search_history storage for {} rows: data {} -> {} bytes, indexes {} -> {} bytes, average row {} -> {} bytes",
+            ROW_COUNT,
+            before[0],
+            after[0],
+            before[1],
+            after[1],
+            before[2],
+            after[2]
+        );
+
+        assertThat(after[0]).isLessThan(before[0]);
+        assertThat(after[1]).isLessThan(before[1]);
+    }
+
+    /**
+     * Create and fill a scratch table with the given weekday column, then read its statistics.
+     * The weekday value is an SQL expression of the date {@code d}.
+     *
+     * @return the data length, the index length and the average row length of the table, in bytes.
+     */
+    private static long[] measure(Statement statement, String table, String dayOfWeekType, String dayOfWeekValue) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS " + table);
+        statement.execute(
+            "CREATE TABLE " +
+            table +
+            " (id bigint NOT NULL PRIMARY KEY, searched_date date, day_of_week " +
+            dayOfWeekType +
+            ", INDEX idx_searched_date (searched_date), INDEX idx_day_of_week_searched_date (day_of_week, searched_date))"
+        );
+        statement.execute(
+            "INSERT INTO " +
+            table +
+            " (id, searched_date, day_of_week) SELECT n + 1, d, " +
+            dayOfWeekValue +
+            " FROM (SELECT n, DATE_ADD('2000-01-01', INTERVAL n % 10000 DAY) d FROM" +
+            " (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d n FROM " +
+            DIGITS +
+            " a, " +
+            DIGITS +
+            " b, " +
+            DIGITS +
+            " c, " +
+            DIGITS +
+            " e, " +
+            DIGITS +
+            " f) numbers) dates"
+        );
+        try (ResultSet analyze = statement.executeQuery("ANALYZE TABLE " + table)) {
+            while (analyze.next()) {
+                // consume the status rows
+            }
+        }
+        try (
+            ResultSet tables = statement.executeQuery(
+                "SELECT data_length, index_length, avg_row_length FROM information_schema.tables" +
+                " WHERE table_schema = DATABASE() AND table_name = '" +
+                table +
+                "'"
+            )
+        ) {
+            tables.next();
+            return new long[] { tables.getLong(1), tables.getLong(2), tables.getLong(3) };
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link BoundedLongQueue}.
+ */
+class BoundedLongQueueTest {
+
+    @Test
+    void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new BoundedLongQueue(1).capacity()).isEqualTo(2);
+        assertThat(new BoundedLongQueue(1000).capacity()).isEqualTo(1024);
+        assertThat(new BoundedLongQueue(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void testOfferRejectsWhenFullAndAcceptsOnceDrained() {
+        BoundedLongQueue queue = new BoundedLongQueue(4);
+        long[] drained = new long[8];
+
+        for (int round = 0; round < 3; round++) {
+            for (long value = 0; value < 4; value++) {
+                assertThat(queue.offer(round * 10 + value)).isTrue();
+            }
+            assertThat(queue.offer(-1)).isFalse();
+            assertThat(queue.size()).isEqualTo(4);
+
+            assertThat(queue.drainTo(drained, 3)).isEqualTo(3);
+            assertThat(queue.drainTo(drained, 8)).isEqualTo(1);
+            assertThat(drained[0]).isEqualTo(round * 10 + 3);
+            assertThat(queue.size()).isZero();
+        }
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws InterruptedException {
+        BoundedLongQueue queue = new BoundedLongQueue(256);
+        int producers = 4;
+        long valuesPerProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            long offset = producer * valuesPerProducer;
+            Thread thread = new Thread(() -> {
+                for (long value = offset; value < offset + valuesPerProducer; value++) {
+                    while (!queue.offer(value)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long[] drained = new long[64];
+        long count = 0;
+        long sum = 0;
+        while (count < producers * valuesPerProducer) {
+            int drainedCount = queue.drainTo(drained, drained.length);
+            if (drainedCount == 0) {
+                Thread.yield();
+            }
+            for (int i = 0; i < drainedCount; i++) {
+                sum += drained[i];
+            }
+            count += drainedCount;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long total = producers * valuesPerProducer;
+        assertThat(sum).isEqualTo(total * (total - 1) / 2);
+        assertThat(queue.size()).isZero();
+    }
+}
@@ -0,0 +1,57 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link DayFinderResponseCache}.
+ */
+class DayFinderResponseCacheTest {
+
+    private static final DateTimeFormatter ETAG_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final DayFinderResponseCache cache = new DayFinderResponseCache();
+
+    @Test
+    void testGetReturnsTheEncodedResponse() {
+        long epochDay = LocalDate.of(2024, 4, 3).toEpochDay();
+
+        DayFinderResponseCache.Entry entry = cache.get(epochDay);
+
+        assertThat(new String(entry.body(), StandardCharsets.US_ASCII)).isEqualTo("{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}");
+        assertThat(entry.eTag()).isEqualTo("\"03-04-2024\"");
+        assertThat(cache.get(epochDay)).isSameAs(entry);
+    }
+
+    @Test
+    void testGetReplacesCollidingEntries() {
+        long epochDay = LocalDate.of(2024, 4, 3).toEpochDay();
+        long collidingEpochDay = epochDay + DayFinderResponseCache.SIZE;
+
+        DayFinderResponseCache.Entry entry = cache.get(epochDay);
+        DayFinderResponseCache.Entry collidingEntry = cache.get(collidingEpochDay);
+
+        assertThat(collidingEntry.epochDay()).isEqualTo(collidingEpochDay);
+        assertThat(collidingEntry.eTag()).isEqualTo("\"" + LocalDate.ofEpochDay(collidingEpochDay).format(ETAG_FORMAT) + "\"");
+        DayFinderResponseCache.Entry reloadedEntry = cache.get(epochDay);
+        assertThat(reloadedEntry).isNotSameAs(entry);
+        assertThat(reloadedEntry.body()).isEqualTo(entry.body());
+    }
+
+    @Test
+    void testMatchesETag() {
+        assertThat(DayFinderResponseCache.matchesETag("\"03-04-2024\"", "03-04-2024")).isTrue();
+        assertThat(DayFinderResponseCache.matchesETag("W/\"03-04-2024\"", "03-04-2024")).isTrue();
+        assertThat(DayFinderResponseCache.matchesETag("\"01-01-2024\", \"03-04-2024\"", "03-04-2024")).isTrue();
+        assertThat(DayFinderResponseCache.matchesETag("*", "03-04-2024")).isTrue();
+        assertThat(DayFinderResponseCache.matchesETag("\"04-04-2024\"", "03-04-2024")).isFalse();
+        assertThat(DayFinderResponseCache.matchesETag("\"x03-04-2024\"", "03-04-2024")).isFalse();
+        assertThat(DayFinderResponseCache.matchesETag("03-04-2024", "03-04-2024")).isFalse();
+        assertThat(DayFinderResponseCache.matchesETag(null, "03-04-2024")).isFalse();
+        assertThat(DayFinderResponseCache.matchesETag("*", null)).isFalse();
+    }
+}
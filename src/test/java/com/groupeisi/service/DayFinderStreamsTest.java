@@ -0,0 +1,103 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link DayFinderStreams} utility class.
+ */
+class DayFinderStreamsTest {
+
+    @Test
+    void testResolveJsonArray() throws IOException {
+        String result = resolve("[\"03-04-2024\", \"31-02-2024\",\n \"29-02-2024\"]", DayFinderStreams.Format.JSON_ARRAY);
+        assertThat(result)
+            .isEqualTo(
+                "[{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}," +
+                "{\"index\":1,\"error\":\"Invalid date, expected dd-MM-yyyy\"}," +
+                "{\"date\":\"29/02/2024\",\"dayOfWeek\":\"THURSDAY\"}]"
+            );
+    }
+
+    @Test
+    void testResolveNdjson() throws IOException {
+        String result = resolve("\"03-04-2024\"\r\n04-04-2024\n\"0\\\"4-04-2024\"\n", DayFinderStreams.Format.NDJSON);
+        assertThat(result)
+            .isEqualTo(
+                "{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}\n" +
+                "{\"date\":\"04/04/2024\",\"dayOfWeek\":\"THURSDAY\"}\n" +
+                "{\"index\":2,\"error\":\"Invalid date, expected dd-MM-yyyy\"}\n"
+            );
+    }
+
+    @Test
+    void testResolveEmptyInput() throws IOException {
+        assertThat(resolve("[]", DayFinderStreams.Format.JSON_ARRAY)).isEqualTo("[]");
+        assertThat(resolve("", DayFinderStreams.Format.NDJSON)).isEmpty();
+    }
+
+    @Test
+    void testResolveReportsOversizedAndUnterminatedTokens() throws IOException {
+        String result = resolve("\"" + "1".repeat(100) + "\"\n\"03-04-2024", DayFinderStreams.Format.NDJSON);
+        assertThat(result)
+            .isEqualTo(
+                "{\"index\":0,\"error\":\"Invalid date, expected dd-MM-yyyy\"}\n" +
+                "{\"index\":1,\"error\":\"Invalid date, expected dd-MM-yyyy\"}\n"
+            );
+    }
+
+    @Test
+    void testResolveStreamsWithoutBufferingEverything() throws IOException {
+        long dates = 200_000;
+        InputStream in = new InputStream() {
+            private final byte[] line = "\"03-04-2024\"\n".getBytes(StandardCharsets.US_ASCII);
+            private long position;
+
+            @Override
+            public int read() {
+                if (position == dates * line.length) {
+                    return -1;
+                }
+                return line[(int) (position++ % line.length)];
+            }
+        };
+        CountingOutputStream out = new CountingOutputStream();
+
+        long count = DayFinderStreams.resolve(in, out, DayFinderStreams.Format.NDJSON);
+
+        assertThat(count).isEqualTo(dates);
+        assertThat(out.bytes).isEqualTo(dates * "{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}\n".length());
+        assertThat(out.largestWrite).isLessThanOrEqualTo(8192);
+    }
+
+    private static String resolve(String input, DayFinderStreams.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DayFinderStreams.resolve(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), out, format);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        private int largestWrite;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            largestWrite = Math.max(largestWrite, len);
+        }
+    }
+}
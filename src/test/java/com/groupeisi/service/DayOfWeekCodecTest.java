@@ -0,0 +1,84 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test class for the {@link DayOfWeekCodec} utility class.
+ */
+class DayOfWeekCodecTest {
+
+    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    @Test
+    void testMatchesLocalDateOnEveryDayOfSeveralCenturies() {
+        LocalDate end = LocalDate.of(2401, 1, 1);
+        for (LocalDate date = LocalDate.of(1599, 1, 1); date.isBefore(end); date = date.plusDays(1)) {
+            String text = date.format(INPUT_FORMAT);
+            long epochDay = DayOfWeekCodec.parseEpochDay(text);
+            assertThat(epochDay).isEqualTo(date.toEpochDay());
+            assertThat(DayOfWeekCodec.parseEpochDay(text.getBytes(StandardCharsets.US_ASCII), 0, text.length())).isEqualTo(epochDay);
+            assertThat(DayOfWeekCodec.dayOfWeek(epochDay)).isEqualTo(date.getDayOfWeek().ordinal());
+        }
+    }
+
+    @Test
+    void testEncode() {
+        byte[] encoded = DayOfWeekCodec.encode(LocalDate.of(2024, 4, 3).toEpochDay());
+        assertThat(new String(encoded, StandardCharsets.US_ASCII)).isEqualTo("{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}");
+        assertThat(encoded).hasSize(DayOfWeekCodec.MAX_ENCODED_LENGTH);
+    }
+
+    @Test
+    void testEncodeBounds() {
+        for (long epochDay : new long[] { DayOfWeekCodec.MIN_EPOCH_DAY, -1, 0, DayOfWeekCodec.MAX_EPOCH_DAY }) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            String expected = "{\"date\":\"" + date.format(OUTPUT_FORMAT) + "\",\"dayOfWeek\":\"" + date.getDayOfWeek() + "\"}";
+            assertThat(new String(DayOfWeekCodec.encode(epochDay), StandardCharsets.US_ASCII)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testCountDaysOfWeekMatchesIteration() {
+        long from = LocalDate.of(2024, 1, 1).toEpochDay();
+        for (long to = from; to < from + 40; to++) {
+            long[] expected = new long[7];
+            for (long epochDay = from; epochDay <= to; epochDay++) {
+                expected[LocalDate.ofEpochDay(epochDay).getDayOfWeek().ordinal()]++;
+            }
+            assertThat(DayOfWeekCodec.countDaysOfWeek(from, to)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testCountDaysOfWeekOverTheWholeSupportedRange() {
+        long[] counts = DayOfWeekCodec.countDaysOfWeek(DayOfWeekCodec.MIN_EPOCH_DAY, DayOfWeekCodec.MAX_EPOCH_DAY);
+        assertThat(Arrays.stream(counts).sum()).isEqualTo(DayOfWeekCodec.MAX_EPOCH_DAY - DayOfWeekCodec.MIN_EPOCH_DAY + 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "1-04-2024", "03/04/2024", "2024-04-03", "3a-04-2024", "00-04-2024", "31-04-2024", "29-02-2023", "01-13-2024", "01-01-0000", " 03-04-2024" })
+    void testRejectsInvalidDates(String text) {
+        assertThat(DayOfWeekCodec.parseEpochDay(text)).isEqualTo(DayOfWeekCodec.INVALID);
+    }
+
+    @Test
+    void testRejectsNull() {
+        assertThat(DayOfWeekCodec.parseEpochDay(null)).isEqualTo(DayOfWeekCodec.INVALID);
+    }
+
+    @Test
+    void testAcceptsLeapDay() {
+        assertThat(DayOfWeekCodec.parseEpochDay("29-02-2000")).isEqualTo(LocalDate.of(2000, 2, 29).toEpochDay());
+        assertThat(DayOfWeekCodec.parseEpochDay("29-02-1900")).isEqualTo(DayOfWeekCodec.INVALID);
+    }
+}
@@ -0,0 +1,167 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SearchHistoryFeedTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private ApplicationProperties applicationProperties;
+
+    private SearchHistoryFeed feed;
+
+    @BeforeEach
+    public void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearchHistoryFeed().setBufferSize(4);
+        applicationProperties.getSearchHistoryFeed().setReplaySize(8);
+        applicationProperties.getSearchHistoryFeed().setMaxSubscribers(2);
+        feed =
+            new SearchHistoryFeed(applicationProperties, new SimpleMeterRegistry(), tasks::add) {
+                @Override
+                SseEmitter newEmitter() {
+                    return new RecordingEmitter();
+                }
+            };
+    }
+
+    @Test
+    void testEventsAreSentInOrder() {
+        RecordingEmitter emitter = subscribe(null);
+
+        feed.publish("created", "first");
+        feed.publish("updated", "second");
+        feed.publish("deleted", "third");
+        runTasks();
+
+        assertThat(emitter.names()).containsExactly("created", "updated", "deleted");
+        assertThat(emitter.ids()).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testResumeReplaysTheMissedEvents() {
+        RecordingEmitter first = subscribe(null);
+        feed.publish("created", "first");
+        runTasks();
+        long lastEventId = first.ids().get(0);
+
+        feed.publish("created", "second");
+        feed.publish("deleted", "third");
+        RecordingEmitter resumed = subscribe(lastEventId);
+        runTasks();
+
+        assertThat(resumed.names()).containsExactly("created", "deleted");
+        assertThat(resumed.ids()).containsExactlyElementsOf(first.ids().subList(1, 3));
+    }
+
+    @Test
+    void testResumeFromLostEventsSendsReset() {
+        RecordingEmitter first = subscribe(null);
+        feed.publish("created", "first");
+        runTasks();
+        long lastEventId = first.ids().get(0);
+
+        // the first subscriber does not keep up and is evicted
+        for (int i = 0; i < applicationProperties.getSearchHistoryFeed().getReplaySize() + 1; i++) {
+            feed.publish("created", "event" + i);
+        }
+        RecordingEmitter tooOld = subscribe(lastEventId);
+        RecordingEmitter unknown = subscribe(0L);
+        runTasks();
+
+        assertThat(tooOld.names()).containsExactly(SearchHistoryFeed.RESET_EVENT);
+        assertThat(unknown.names()).containsExactly(SearchHistoryFeed.RESET_EVENT);
+    }
+
+    @Test
+    void testSlowSubscriberIsEvicted() {
+        RecordingEmitter slow = subscribe(null);
+        for (int i = 0; i < applicationProperties.getSearchHistoryFeed().getBufferSize() + 1; i++) {
+            feed.publish("created", "event" + i);
+        }
+
+        assertThat(feed.getSubscriberCount()).isZero();
+        runTasks();
+        assertThat(slow.names()).containsExactly(SearchHistoryFeed.OVERFLOW_EVENT);
+        assertThat(slow.completed).isTrue();
+    }
+
+    @Test
+    void testSubscribersAreLimited() {
+        subscribe(null);
+        subscribe(null);
+
+        assertThat(feed.subscribe(null)).isEmpty();
+    }
+
+    @Test
+    void testHeartbeatIsAComment() {
+        RecordingEmitter emitter = subscribe(null);
+
+        feed.heartbeat();
+        runTasks();
+
+        assertThat(emitter.sent).containsExactly(":heartbeat\n");
+    }
+
+    private RecordingEmitter subscribe(Long lastEventId) {
+        return (RecordingEmitter) feed.subscribe(lastEventId).orElseThrow();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Emitter keeping the text of the events sent to it.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> sent = new ArrayList<>();
+
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(data -> text.append(data.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        private List<String> names() {
+            return field("event:").toList();
+        }
+
+        private List<Long> ids() {
+            return field("id:").map(Long::valueOf).toList();
+        }
+
+        private Stream<String> field(String prefix) {
+            return sent
+                .stream()
+                .flatMap(String::lines)
+                .filter(line -> line.startsWith(prefix))
+                .map(line -> line.substring(prefix.length()));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.IntegrationTest;
+import com.groupeisi.config.ApplicationProperties;
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.repository.SearchHistoryRepository;
+import com.groupeisi.service.dto.SearchHistoryPartitionDTO;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link SearchHistoryPartitionService}.
+ * <p>
+ * Partition changes are DDL statements, which MySQL commits implicitly, so these tests are not transactional.
+ */
+@IntegrationTest
+class SearchHistoryPartitionServiceIT {
+
+    @Autowired
+    private SearchHistoryPartitionService searchHistoryPartitionService;
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int retentionMonths;
+
+    private boolean archive;
+
+    @BeforeEach
+    public void saveProperties() {
+        retentionMonths = applicationProperties.getSearchHistoryPartitioning().getRetentionMonths();
+        archive = applicationProperties.getSearchHistoryPartitioning().isArchive();
+    }
+
+    @AfterEach
+    public void restoreProperties() {
+        applicationProperties.getSearchHistoryPartitioning().setRetentionMonths(retentionMonths);
+        applicationProperties.getSearchHistoryPartitioning().setArchive(archive);
+        for (String table : jdbcTemplate.queryForList(
+            "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name LIKE 'search\\_history\\_archive\\_%'",
+            String.class
+        )) {
+            jdbcTemplate.execute("DROP TABLE " + table);
+        }
+    }
+
+    @Test
+    void testMaintainCreatesUpcomingPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        int premakeMonths = applicationProperties.getSearchHistoryPartitioning().getPremakeMonths();
+
+        List<SearchHistoryPartitionDTO> partitions = searchHistoryPartitionService.maintain(currentMonth);
+
+        assertThat(partitions).last().extracting(SearchHistoryPartitionDTO::getName).isEqualTo(SearchHistoryPartitionService.MAX_PARTITION);
+        assertThat(partitions)
+            .extracting(SearchHistoryPartitionDTO::getLessThan)
+            .contains(currentMonth.plusMonths(premakeMonths + 1).atDay(1));
+        // running it again changes nothing
+        assertThat(searchHistoryPartitionService.maintain(currentMonth))
+            .extracting(SearchHistoryPartitionDTO::getName)
+            .isEqualTo(partitions.stream().map(SearchHistoryPartitionDTO::getName).toList());
+    }
+
+    @Test
+    void testMaintainArchivesExpiredPartitions() {
+        SearchHistory searchHistory = searchHistoryRepository.saveAndFlush(
+            new SearchHistory().searchedDate(LocalDate.of(1902, 1, 1)).dayOfWeek("WEDNESDAY")
+        );
+        applicationProperties.getSearchHistoryPartitioning().setRetentionMonths(1);
+        applicationProperties.getSearchHistoryPartitioning().setArchive(true);
+
+        // two months from now, the partition holding the rows recorded today is past the retention
+        searchHistoryPartitionService.maintain(YearMonth.now().plusMonths(2));
+
+        assertThat(searchHistoryRepository.existsById(searchHistory.getId())).isFalse();
+        List<String> archiveTables = jdbcTemplate.queryForList(
+            "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name LIKE 'search\\_history\\_archive\\_%'",
+            String.class
+        );
+        assertThat(
+            archiveTables
+                .stream()
+                .mapToLong(table -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Long.class, searchHistory.getId()))
+                .sum()
+        ).isEqualTo(1);
+        assertThat(searchHistoryPartitionService.getPartitions())
+            .extracting(SearchHistoryPartitionDTO::getLessThan)
+            .doesNotContain(YearMonth.now().plusMonths(1).atDay(1));
+    }
+
+    @Test
+    void testMaintainResumesAnInterruptedArchive() {
+        SearchHistory searchHistory = searchHistoryRepository.saveAndFlush(
+            new SearchHistory().searchedDate(LocalDate.of(1903, 1, 1)).dayOfWeek("THURSDAY")
+        );
+        // the partition holding the rows recorded today
+        LocalDate lessThan = searchHistoryPartitionService
+            .getPartitions()
+            .stream()
+            .map(SearchHistoryPartitionDTO::getLessThan)
+            .filter(bound -> bound != null && bound.isAfter(LocalDate.now()))
+            .findFirst()
+            .orElseThrow();
+        String partition = SearchHistoryPartitionService.partitionName(YearMonth.from(lessThan).minusMonths(1));
+        String archiveTable = SearchHistoryPartitionService.ARCHIVE_TABLE_PREFIX + partition;
+        // a previous run exchanged the partition with its archive table, then failed before dropping it
+        jdbcTemplate.execute("CREATE TABLE " + archiveTable + " LIKE search_history");
+        jdbcTemplate.execute("ALTER TABLE " + archiveTable + " REMOVE PARTITIONING");
+        jdbcTemplate.execute(
+            "ALTER TABLE search_history EXCHANGE PARTITION " + partition + " WITH TABLE " + archiveTable + " WITHOUT VALIDATION"
+        );
+        applicationProperties.getSearchHistoryPartitioning().setRetentionMonths(1);
+        applicationProperties.getSearchHistoryPartitioning().setArchive(true);
+
+        // one month after the partition, it is past the retention
+        List<SearchHistoryPartitionDTO> partitions = searchHistoryPartitionService.maintain(YearMonth.from(lessThan).plusMonths(1));
+
+        assertThat(partitions).extracting(SearchHistoryPartitionDTO::getName).doesNotContain(partition);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + archiveTable + " WHERE id = ?", Long.class, searchHistory.getId()))
+            .isEqualTo(1);
+        // retrying the same month changes nothing
+        assertThat(searchHistoryPartitionService.maintain(YearMonth.from(lessThan).plusMonths(1)))
+            .extracting(SearchHistoryPartitionDTO::getName)
+            .isEqualTo(partitions.stream().map(SearchHistoryPartitionDTO::getName).toList());
+    }
+}
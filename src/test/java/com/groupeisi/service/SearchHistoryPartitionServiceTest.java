@@ -0,0 +1,44 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groupeisi.service.dto.SearchHistoryPartitionDTO;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SearchHistoryPartitionServiceTest {
+
+    @Test
+    void testPartitionName() {
+        assertThat(SearchHistoryPartitionService.partitionName(YearMonth.of(2026, 10))).isEqualTo("p202610");
+        assertThat(SearchHistoryPartitionService.partitionName(YearMonth.of(2027, 1))).isEqualTo("p202701");
+    }
+
+    @Test
+    void testParseBound() {
+        assertThat(SearchHistoryPartitionService.parseBound("'2026-11-01'")).isEqualTo(LocalDate.of(2026, 11, 1));
+        assertThat(SearchHistoryPartitionService.parseBound("MAXVALUE")).isNull();
+        assertThat(SearchHistoryPartitionService.parseBound(null)).isNull();
+    }
+
+    @Test
+    void testExpiredPartitions() {
+        List<SearchHistoryPartitionDTO> partitions = List.of(
+            partition("p202610", LocalDate.of(2026, 11, 1)),
+            partition("p202611", LocalDate.of(2026, 12, 1)),
+            partition("p202612", LocalDate.of(2027, 1, 1)),
+            partition("pmax", null)
+        );
+
+        assertThat(SearchHistoryPartitionService.expiredPartitions(partitions, LocalDate.of(2026, 12, 1)))
+            .extracting(SearchHistoryPartitionDTO::getName)
+            .containsExactly("p202610", "p202611");
+        assertThat(SearchHistoryPartitionService.expiredPartitions(partitions, LocalDate.of(2026, 10, 1))).isEmpty();
+    }
+
+    private static SearchHistoryPartitionDTO partition(String name, LocalDate lessThan) {
+        return new SearchHistoryPartitionDTO(name, lessThan, 0, 0, 0);
+    }
+}
@@ -0,0 +1,151 @@
+package com.groupeisi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupeisi.IntegrationTest;
+import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.repository.SearchHistoryRepository;
+import com.groupeisi.service.criteria.SearchHistoryCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests comparing the DTO queries of {@link SearchHistoryQueryService} with entity queries, on a page of
+ * {@value #PAGE_SIZE} rows read and serialized as the list endpoint does.
+ * <p>
+ * The rows are committed, so these tests are not transactional: they only use dates of 1703, and delete them afterwards.
+ */
+@IntegrationTest
+class SearchHistoryQueryServiceIT {
+
+    private static final int PAGE_SIZE = 10000;
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(1703, 1, 1);
+
+    private static final LocalDate LAST_DATE = LocalDate.of(1703, 12, 31);
+
+    private final Logger log = LoggerFactory.getLogger(SearchHistoryQueryServiceIT.class);
+
+    @Autowired
+    private SearchHistoryQueryService searchHistoryQueryService;
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SearchHistoryCriteria criteria;
+
+    private final Pageable page = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+
+    @BeforeEach
+    public void insertPage() {
+        List<SearchHistory> searchHistories = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            LocalDate date = FIRST_DATE.plusDays(i % 365);
+            searchHistories.add(new SearchHistory().searchedDate(date).dayOfWeek(date.getDayOfWeek().name()));
+        }
+        searchHistoryRepository.saveAll(searchHistories);
+
+        criteria = new SearchHistoryCriteria();
+        criteria.searchedDate().setGreaterThanOrEqual(FIRST_DATE);
+        criteria.searchedDate().setLessThanOrEqual(LAST_DATE);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM search_history WHERE searched_date BETWEEN ? AND ?", FIRST_DATE, LAST_DATE);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testDTOPageIsNotManaged() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(searchHistoryQueryService.findByCriteria(criteria, page).getContent()).hasSize(PAGE_SIZE);
+            assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+            assertThat(searchHistoryRepository.findAll(searchHistoryQueryService.createSpecification(criteria), page)).hasSize(PAGE_SIZE);
+            assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(PAGE_SIZE);
+        });
+    }
+
+    @Test
+    void testDTOPageIsCheaperThanEntityPage() {
+        Supplier<byte[]> entities = () -> serialize(searchHistoryRepository.findAll(searchHistoryQueryService.createSpecification(criteria), page).getContent());
+        Supplier<byte[]> dtos = () -> serialize(searchHistoryQueryService.findByCriteria(criteria, page).getContent());
+        for (int i = 0; i < 3; i++) {
+            measure(entities);
+            measure(dtos);
+        }
+
+        long[] entityCost = measure(entities);
+        long[] dtoCost = measure(dtos);
+        log.info(
+            "Page of {} searchHistories: entities took {} ms and allocated {} KB, DTOs took {} ms and allocated {} KB",
+            PAGE_SIZE,
+            entityCost[0] / 1_000_000,
+            entityCost[1] / 1024,
+            dtoCost[0] / 1_000_000,
+            dtoCost[1] / 1024
+        );
+
+        assertThat(dtoCost[1]).isLessThan(entityCost[1]);
+    }
+
+    private byte[] serialize(List<?> content) {
+        try {
+            return om.writeValueAsBytes(content);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the elapsed nanoseconds and the bytes allocated by the current thread, to read and serialize the page in a
+     * read-only transaction, as the list endpoint does.
+     */
+    private long[] measure(Supplier<byte[]> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        byte[] json = transactionTemplate.execute(status -> read.get());
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        assertThat(json).isNotEmpty();
+        return new long[] { elapsed, allocated };
+    }
+}
@@ -1,23 +1,50 @@
 package com.groupeisi.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
 import com.groupeisi.IntegrationTest;
+import com.groupeisi.config.SqlStatementRecorder;
+import com.groupeisi.domain.Authority;
 import com.groupeisi.domain.User;
+import com.groupeisi.repository.AuthorityRepository;
 import com.groupeisi.repository.UserRepository;
+import com.groupeisi.security.AuthoritiesConstants;
+import com.groupeisi.service.dto.AdminUserDTO;
+import com.groupeisi.service.dto.UserBulkOperationDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -40,15 +67,34 @@ class UserServiceIT {
 
     private static final String DEFAULT_LANGKEY = "dummy";
 
+    private static final String REGISTRATION_LOGIN_PREFIX = "registration-race-";
+
+    private final Logger log = LoggerFactory.getLogger(UserServiceIT.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -145,37 +191,249 @@ class UserServiceIT {
     }
 
     @Test
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void assertThatNotActivatedUsersWithNotNullActivationKeyCreatedBefore3DaysAreDeleted() {
+        // The purge runs in its own transactions, so the user has to be committed
         Instant now = Instant.now();
         when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
         user.setActivated(false);
         user.setActivationKey(RandomStringUtils.random(20));
-        User dbUser = userRepository.saveAndFlush(user);
-        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
-        userRepository.saveAndFlush(user);
-        Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
-        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
-        assertThat(users).isNotEmpty();
-        userService.removeNotActivatedUsers();
-        users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
-        assertThat(users).isEmpty();
+        try {
+            userRepository.saveAndFlush(user);
+            Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
+            List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
+            assertThat(users).isNotEmpty();
+            userService.removeNotActivatedUsers();
+            users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
+            assertThat(users).isEmpty();
+        } finally {
+            deleteCommittedUsers(DEFAULT_LOGIN);
+        }
     }
 
     @Test
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
         Instant now = Instant.now();
         when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
         user.setActivated(false);
-        User dbUser = userRepository.saveAndFlush(user);
-        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        try {
+            User dbUser = userRepository.saveAndFlush(user);
+            Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
+            List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
+            assertThat(users).isEmpty();
+            userService.removeNotActivatedUsers();
+            Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
+            assertThat(maybeDbUser).contains(dbUser);
+        } finally {
+            deleteCommittedUsers(DEFAULT_LOGIN);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatNotActivatedUsersArePurgedWithTheirAuthorities() {
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(LocalDateTime.now().minusDays(4)));
+        Authority authority = authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow();
+        List<Long> staleIds = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                User staleUser = new User();
+                staleUser.setLogin("stale-user-" + i);
+                staleUser.setEmail("stale-user-" + i + "@localhost");
+                staleUser.setPassword(RandomStringUtils.randomAlphanumeric(60));
+                staleUser.setActivationKey(RandomUtil.generateActivationKey());
+                staleUser.setAuthorities(new HashSet<>(Set.of(authority)));
+                staleIds.add(userRepository.saveAndFlush(staleUser).getId());
+            }
+            userRepository.saveAndFlush(user);
+            assertThat(userRepository.findOneWithAuthoritiesByLogin("stale-user-0")).isPresent();
+            double purged = meterRegistry.get(UserService.PURGED_USERS_METER_NAME).counter().count();
+
+            userService.removeNotActivatedUsers();
+
+            assertThat(userRepository.findAllById(staleIds)).isEmpty();
+            assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).isPresent();
+            assertThat(
+                em
+                    .createNativeQuery("SELECT COUNT(*) FROM jhi_user_authority WHERE user_id IN (:ids)")
+                    .setParameter("ids", staleIds)
+                    .getSingleResult()
+            )
+                .isEqualTo(0L);
+            assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("stale-user-0")).isNull();
+            assertThat(meterRegistry.get(UserService.PURGED_USERS_METER_NAME).counter().count()).isEqualTo(purged + 3);
+        } finally {
+            deleteCommittedUsers("stale-user-%");
+            deleteCommittedUsers(DEFAULT_LOGIN);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatUsersActivatedInBulkAreNotPurgedOnceDeactivated() {
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(LocalDateTime.now().minusDays(4)));
+        user.setActivated(false);
+        user.setActivationKey(RandomUtil.generateActivationKey());
+        UserBulkOperationDTO bulkOperation = new UserBulkOperationDTO();
+        bulkOperation.setLogins(Set.of(DEFAULT_LOGIN.toUpperCase(Locale.ENGLISH)));
+        try {
+            userRepository.saveAndFlush(user);
+
+            bulkOperation.setOperation(UserBulkOperationDTO.Operation.ACTIVATE);
+            assertThat(userService.applyBulkOperation(bulkOperation).getUpdated()).isEqualTo(1);
+            assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN).orElseThrow().getActivationKey()).isNull();
+            bulkOperation.setOperation(UserBulkOperationDTO.Operation.DEACTIVATE);
+            userService.applyBulkOperation(bulkOperation);
+
+            userService.removeNotActivatedUsers();
+
+            assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN))
+                .hasValueSatisfying(dbUser -> assertThat(dbUser.isActivated()).isFalse());
+        } finally {
+            deleteCommittedUsers(DEFAULT_LOGIN);
+        }
+    }
+
+    @Test
+    @Transactional
+    void assertThatManagedUsersAreReadWithAConstantNumberOfQueries() {
+        Authority authority = authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow();
+        for (int i = 0; i < 40; i++) {
+            User managedUser = new User();
+            managedUser.setLogin("managed-user-" + i);
+            managedUser.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            managedUser.setActivated(true);
+            managedUser.setAuthorities(new HashSet<>(Set.of(authority)));
+            userRepository.save(managedUser);
+        }
+        em.flush();
+
+        // the ids of the page, their count, and the users with their authorities
+        assertThat(countManagedUsersStatements(PageRequest.of(0, 2))).isEqualTo(3);
+        assertThat(countManagedUsersStatements(PageRequest.of(0, 40))).isEqualTo(3);
+    }
+
+    @Test
+    @Transactional
+    void assertThatRegistrationTakesOverNotActivatedUserWithoutLoadingIt() {
+        user.setActivated(false);
+        user.setAuthorities(new HashSet<>(Set.of(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow())));
         userRepository.saveAndFlush(user);
-        Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
-        List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
-        assertThat(users).isEmpty();
-        userService.removeNotActivatedUsers();
-        Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
-        assertThat(maybeDbUser).contains(dbUser);
+        assertThat(userRepository.findOneWithAuthoritiesByEmail(DEFAULT_EMAIL)).isPresent();
+
+        AdminUserDTO registration = new AdminUserDTO();
+        registration.setLogin(DEFAULT_LOGIN.toUpperCase());
+        registration.setEmail("other-" + DEFAULT_EMAIL);
+        registration.setLangKey(DEFAULT_LANGKEY);
+        SqlStatementRecorder.start();
+        User registered = userService.registerUser(registration, "password");
+        List<String> statements = SqlStatementRecorder.stop();
+
+        // the users taken over are read by a plain locking query, not as entities
+        assertThat(statements).noneMatch(statement -> statement.startsWith("select") && statement.contains(" from jhi_user "));
+        assertThat(registered.getId()).isNotEqualTo(user.getId());
+        // the user taken over is no longer cached under the email it held
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get(DEFAULT_EMAIL)).isNull();
+        assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).map(User::getId).contains(registered.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jhi_user_authority WHERE user_id = ?", Long.class, user.getId()))
+            .isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatConcurrentRegistrationsFailOnTheUniqueConstraints() throws Exception {
+        int logins = 8;
+        int registrationsPerLogin = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            long start = System.nanoTime();
+            List<RuntimeException> failures = register(executor, logins, registrationsPerLogin, "race");
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("{} concurrent registrations of {} logins took {} ms", logins * registrationsPerLogin, logins, elapsedMs);
+
+            // every registration either created its user, took over a not activated one, or lost on the login constraint
+            assertThat(failures).allMatch(UsernameAlreadyUsedException.class::isInstance);
+            assertThat(countRegistrations("race")).isEqualTo(logins);
+
+            jdbcTemplate.update("UPDATE jhi_user SET activated = TRUE WHERE login LIKE ?", REGISTRATION_LOGIN_PREFIX + "%");
+            assertThat(register(executor, logins, registrationsPerLogin, "activated"))
+                .hasSize(logins * registrationsPerLogin)
+                .allMatch(UsernameAlreadyUsedException.class::isInstance);
+            assertThat(countRegistrations("activated")).isZero();
+
+            String takenEmail = jdbcTemplate.queryForObject(
+                "SELECT email FROM jhi_user WHERE login = ?",
+                String.class,
+                REGISTRATION_LOGIN_PREFIX + "0"
+            );
+            AdminUserDTO registration = new AdminUserDTO();
+            registration.setLogin(REGISTRATION_LOGIN_PREFIX + "other");
+            registration.setEmail(takenEmail.toUpperCase());
+            assertThatThrownBy(() -> userService.registerUser(registration, "password")).isInstanceOf(EmailAlreadyUsedException.class);
+        } finally {
+            executor.shutdownNow();
+            deleteCommittedUsers(REGISTRATION_LOGIN_PREFIX + "%");
+        }
+    }
+
+    /**
+     * Register {@code registrationsPerLogin} users of distinct emails for each of {@code logins} logins, all at once.
+     *
+     * @return the failures of the registrations.
+     */
+    private List<RuntimeException> register(ExecutorService executor, int logins, int registrationsPerLogin, String emailPrefix)
+        throws Exception {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> registrations = new ArrayList<>();
+        for (int i = 0; i < logins * registrationsPerLogin; i++) {
+            AdminUserDTO registration = new AdminUserDTO();
+            registration.setLogin(REGISTRATION_LOGIN_PREFIX + (i % logins));
+            registration.setEmail(emailPrefix + "-" + i + "@" + REGISTRATION_LOGIN_PREFIX + "localhost");
+            registration.setLangKey(DEFAULT_LANGKEY);
+            registrations.add(
+                executor.submit(() -> {
+                    ready.await();
+                    return userService.registerUser(registration, "password");
+                })
+            );
+        }
+        ready.countDown();
+        List<RuntimeException> failures = new ArrayList<>();
+        for (Future<?> registration : registrations) {
+            try {
+                registration.get(1, TimeUnit.MINUTES);
+            } catch (ExecutionException e) {
+                failures.add((RuntimeException) e.getCause());
+            }
+        }
+        return failures;
+    }
+
+    private long countRegistrations(String emailPrefix) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM jhi_user WHERE login LIKE ? AND email LIKE ?",
+            Long.class,
+            REGISTRATION_LOGIN_PREFIX + "%",
+            emailPrefix + "-%"
+        );
+    }
+
+    /**
+     * Delete the users committed by a test that is not transactional, with their authorities, and forget them in the caches.
+     */
+    private void deleteCommittedUsers(String loginPattern) {
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE login LIKE ?", loginPattern);
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+    }
+
+    private int countManagedUsersStatements(Pageable pageable) {
+        em.clear();
+        SqlStatementRecorder.start();
+        Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
+        List<String> statements = SqlStatementRecorder.stop();
+        assertThat(page.getContent()).hasSize(pageable.getPageSize());
+        return statements.size();
     }
 }
@@ -0,0 +1,260 @@
+package com.groupeisi.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.groupeisi.IntegrationTest;
+import com.groupeisi.repository.SearchHistoryRepository;
+import com.groupeisi.service.SearchHistoryRecorder;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link CalendarDayFinderResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+class CalendarDayFinderResourceIT {
+
+    private static final String DAYFINDER_URL = "/services/calendar/services/calendar/dayfinder";
+
+    private static final String BULK_DAYFINDER_URL = "/services/calendar/dayfinder/bulk";
+
+    private static final String RANGE_DAYFINDER_URL = "/services/calendar/dayfinder/range";
+
+    @Autowired
+    private MockMvc restCalendarMockMvc;
+
+    @Autowired
+    private SearchHistoryRepository searchHistoryRepository;
+
+    @Autowired
+    private SearchHistoryRecorder searchHistoryRecorder;
+
+    @Test
+    void testFindDayOfWeek() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "03-04-2024"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.date").value("03/04/2024"))
+            .andExpect(jsonPath("$.dayOfWeek").value("WEDNESDAY"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"03-04-2024\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void testFindDayOfWeekIfNoneMatch() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "03-04-2024").header(HttpHeaders.IF_NONE_MATCH, "\"03-04-2024\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"03-04-2024\""))
+            .andExpect(content().string(""));
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "03-04-2024").header(HttpHeaders.IF_NONE_MATCH, "\"04-04-2024\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void testFindDayOfWeekIfModifiedSince() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "03-04-2024").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 03 Apr 2024 00:00:00 GMT"))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testFindDayOfWeekIgnoresInvalidIfModifiedSince() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "03-04-2024").header(HttpHeaders.IF_MODIFIED_SINCE, "not a date"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.dayOfWeek").value("WEDNESDAY"));
+    }
+
+    @Test
+    void testFindDayOfWeekConditionalWithInvalidDate() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "xx-yy-zzzz").header(HttpHeaders.IF_NONE_MATCH, "\"xx-yy-zzzz\""))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))));
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "31-02-2024").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 03 Apr 2024 00:00:00 GMT"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFindDayOfWeekRecordsSearchHistory() throws Exception {
+        LocalDate date = LocalDate.of(1871, 3, 17);
+        long countBefore = countSearchHistories(date);
+
+        restCalendarMockMvc.perform(get(DAYFINDER_URL).param("date", "17-03-1871")).andExpect(status().isOk());
+        restCalendarMockMvc.perform(get(DAYFINDER_URL).param("date", "17-03-1871")).andExpect(status().isOk());
+        restCalendarMockMvc.perform(get(DAYFINDER_URL).param("date", "31-02-1871")).andExpect(status().isBadRequest());
+        searchHistoryRecorder.flush();
+
+        assertThat(countSearchHistories(date)).isEqualTo(countBefore + 2);
+        assertThat(searchHistoryRepository.findAll())
+            .filteredOn(searchHistory -> date.equals(searchHistory.getSearchedDate()))
+            .allMatch(searchHistory -> "FRIDAY".equals(searchHistory.getDayOfWeek()));
+    }
+
+    private long countSearchHistories(LocalDate date) {
+        return searchHistoryRepository.findAll().stream().filter(searchHistory -> date.equals(searchHistory.getSearchedDate())).count();
+    }
+
+    @Test
+    void testFindDayOfWeekOnLeapDay() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "29-02-2024"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.date").value("29/02/2024"))
+            .andExpect(jsonPath("$.dayOfWeek").value("THURSDAY"));
+    }
+
+    @Test
+    void testFindDayOfWeekWithInvalidDate() throws Exception {
+        restCalendarMockMvc
+            .perform(get(DAYFINDER_URL).param("date", "31-02-2024"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.status").value(400))
+            .andExpect(jsonPath("$.message").value("error.http.400"));
+    }
+
+    @Test
+    void testFindDayOfWeekWithoutDate() throws Exception {
+        restCalendarMockMvc.perform(get(DAYFINDER_URL)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindDaysOfWeekFromJsonArray() throws Exception {
+        restCalendarMockMvc
+            .perform(post(BULK_DAYFINDER_URL).contentType(MediaType.APPLICATION_JSON).content("[\"03-04-2024\",\"31-02-2024\"]"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.[0].dayOfWeek").value("WEDNESDAY"))
+            .andExpect(jsonPath("$.[1].index").value(1))
+            .andExpect(jsonPath("$.[1].error").exists());
+    }
+
+    @Test
+    @WithMockUser
+    void testFindDaysOfWeekFromNdjson() throws Exception {
+        restCalendarMockMvc
+            .perform(post(BULK_DAYFINDER_URL).contentType(MediaType.APPLICATION_NDJSON).content("\"03-04-2024\"\n\"04-04-2024\"\n"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(
+                content()
+                    .string(
+                        "{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}\n{\"date\":\"04/04/2024\",\"dayOfWeek\":\"THURSDAY\"}\n"
+                    )
+            );
+    }
+
+    @Test
+    @WithUnauthenticatedMockUser
+    void testFindDaysOfWeekRequiresAuthentication() throws Exception {
+        restCalendarMockMvc
+            .perform(post(BULK_DAYFINDER_URL).contentType(MediaType.APPLICATION_JSON).content("[\"03-04-2024\"]"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testFindDaysOfWeekInRange() throws Exception {
+        MvcResult result = restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "30-12-2023").param("to", "02-01-2024"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCalendarMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.length()").value(4))
+            .andExpect(jsonPath("$.[0].date").value("30/12/2023"))
+            .andExpect(jsonPath("$.[0].dayOfWeek").value("SATURDAY"))
+            .andExpect(jsonPath("$.[3].date").value("02/01/2024"))
+            .andExpect(jsonPath("$.[3].dayOfWeek").value("TUESDAY"));
+    }
+
+    @Test
+    void testFindDaysOfWeekInRangeAsNdjson() throws Exception {
+        MvcResult result = restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "03-04-2024").param("to", "04-04-2024").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCalendarMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(
+                content()
+                    .string(
+                        "{\"date\":\"03/04/2024\",\"dayOfWeek\":\"WEDNESDAY\"}\n{\"date\":\"04/04/2024\",\"dayOfWeek\":\"THURSDAY\"}\n"
+                    )
+            );
+    }
+
+    @Test
+    void testFindDaysOfWeekInInvalidRange() throws Exception {
+        restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "04-04-2024").param("to", "03-04-2024"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.rangeinvalid"));
+        restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "31-04-2024").param("to", "03-05-2024"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.dateinvalid"));
+    }
+
+    @Test
+    void testFindDaysOfWeekInTooLargeRange() throws Exception {
+        // the default limit is 1830 dates
+        restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "01-01-1600").param("to", "31-12-2400"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.rangetoolarge"));
+        restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "01-01-2024").param("to", "04-01-2029"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.rangetoolarge"));
+        MvcResult result = restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL).param("from", "01-01-2024").param("to", "03-01-2029"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCalendarMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(1830));
+        // the summary is computed in constant time, whatever the range
+        restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL + "/summary").param("from", "01-01-1600").param("to", "31-12-2400"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSummarizeDaysOfWeekInRange() throws Exception {
+        restCalendarMockMvc
+            .perform(get(RANGE_DAYFINDER_URL + "/summary").param("from", "01-01-2024").param("to", "31-12-2024"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.from").value("01/01/2024"))
+            .andExpect(jsonPath("$.to").value("31/12/2024"))
+            .andExpect(jsonPath("$.days").value(366))
+            .andExpect(jsonPath("$.counts.MONDAY").value(53))
+            .andExpect(jsonPath("$.counts.TUESDAY").value(53))
+            .andExpect(jsonPath("$.counts.WEDNESDAY").value(52))
+            .andExpect(jsonPath("$.counts.SUNDAY").value(52));
+    }
+}
@@ -1,5 +1,7 @@
 package com.groupeisi.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -18,6 +20,7 @@ import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -72,6 +75,50 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersWithCursor() throws Exception {
+        // Initialize the database, with a user who is not activated
+        userRepository.saveAndFlush(user);
+        User otherUser = UserResourceIT.createEntity(em);
+        userRepository.saveAndFlush(otherUser);
+        User notActivatedUser = UserResourceIT.createEntity(em);
+        notActivatedUser.setActivated(false);
+        userRepository.saveAndFlush(notActivatedUser);
+
+        MvcResult firstSlice = restUserMockMvc
+            .perform(get("/api/users").param("sort", "id,desc").param("size", "1").param("cursor", ""))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].login").value(contains(otherUser.getLogin())))
+            .andReturn();
+        MvcResult lastSlice = restUserMockMvc
+            .perform(get("/api/users").param("sort", "id,desc").param("size", "1").param("cursor", UserResourceIT.nextCursor(firstSlice)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(contains(DEFAULT_LOGIN)))
+            .andReturn();
+        assertThat(UserResourceIT.nextCursor(lastSlice)).isNull();
+
+        restUserMockMvc
+            .perform(get("/api/users").param("cursor", "").param("count", "true"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"));
+    }
+
+    @Test
+    @Transactional
+    void getAllPublicUsersWithCursorSortedByPrivateProperty() throws Exception {
+        userRepository.saveAndFlush(user);
+
+        // the token would carry the email of the last user of the slice
+        restUserMockMvc
+            .perform(get("/api/users").param("sort", "email,asc").param("size", "1").param("cursor", ""))
+            .andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(get("/api/users").param("sort", "login,asc").param("size", "1").param("cursor", ""))
+            .andExpect(status().isOk());
+    }
+
     @Test
     @Transactional
     void getAllAuthorities() throws Exception {
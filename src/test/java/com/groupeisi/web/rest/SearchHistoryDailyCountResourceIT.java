@@ -0,0 +1,134 @@
+package com.groupeisi.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.groupeisi.IntegrationTest;
+import com.groupeisi.service.SearchHistoryDailyCountService;
+import com.groupeisi.service.SearchHistoryRecorder;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchHistoryDailyCountResource} REST controller.
+ * <p>
+ * Counts are written by the {@link SearchHistoryDailyCountService} in their own transactions, so these tests are not
+ * transactional: they only use dates of 1600, and delete them afterwards.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SearchHistoryDailyCountResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/search-history-daily-counts";
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(1600, 1, 1);
+
+    private static final LocalDate SECOND_DATE = LocalDate.of(1600, 1, 2);
+
+    @Autowired
+    private SearchHistoryDailyCountService searchHistoryDailyCountService;
+
+    @Autowired
+    private SearchHistoryRecorder searchHistoryRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc restSearchHistoryDailyCountMockMvc;
+
+    @BeforeEach
+    @AfterEach
+    public void cleanup() {
+        searchHistoryRecorder.flush();
+        searchHistoryDailyCountService.flush();
+        jdbcTemplate.update("DELETE FROM search_history WHERE searched_date BETWEEN '1600-01-01' AND '1600-12-31'");
+        jdbcTemplate.update("DELETE FROM search_history_daily_count WHERE searched_date BETWEEN '1600-01-01' AND '1600-12-31'");
+    }
+
+    @Test
+    void testFlushAddsTheCountedHits() {
+        for (int i = 0; i < 3; i++) {
+            searchHistoryDailyCountService.increment(FIRST_DATE.toEpochDay());
+        }
+        searchHistoryDailyCountService.increment(SECOND_DATE.toEpochDay());
+
+        assertThat(searchHistoryDailyCountService.flush()).isEqualTo(2);
+        // nothing left to write
+        assertThat(searchHistoryDailyCountService.flush()).isZero();
+
+        searchHistoryDailyCountService.add(FIRST_DATE.toEpochDay(), 2);
+        searchHistoryDailyCountService.flush();
+
+        assertThat(searchHistoryDailyCountService.findBetween(FIRST_DATE, SECOND_DATE))
+            .extracting(dailyCount -> dailyCount.getSearchedDate() + "=" + dailyCount.getHits())
+            .containsExactly("1600-01-01=5", "1600-01-02=1");
+    }
+
+    @Test
+    void testDayFinderLookupsAreCounted() throws Exception {
+        restSearchHistoryDailyCountMockMvc.perform(get("/services/calendar/services/calendar/dayfinder?date=02-01-1600")).andExpect(status().isOk());
+        restSearchHistoryDailyCountMockMvc.perform(get("/services/calendar/services/calendar/dayfinder?date=02-01-1600")).andExpect(status().isOk());
+        // the lookups are counted once the recorder has written them
+        searchHistoryRecorder.flush();
+        searchHistoryDailyCountService.flush();
+
+        restSearchHistoryDailyCountMockMvc
+            .perform(get(ENTITY_API_URL + "?from=1600-01-01&to=1600-12-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].searchedDate").value("1600-01-02"))
+            .andExpect(jsonPath("$.[0].hits").value(2));
+    }
+
+    @Test
+    void getHistogram() throws Exception {
+        searchHistoryDailyCountService.add(SECOND_DATE.toEpochDay(), 4);
+        searchHistoryDailyCountService.add(FIRST_DATE.toEpochDay(), 7);
+        searchHistoryDailyCountService.add(LocalDate.of(1600, 3, 1).toEpochDay(), 1);
+        searchHistoryDailyCountService.flush();
+
+        restSearchHistoryDailyCountMockMvc
+            .perform(get(ENTITY_API_URL + "?from=1600-01-01&to=1600-01-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].searchedDate").value(contains("1600-01-01", "1600-01-02")))
+            .andExpect(jsonPath("$.[*].hits").value(contains(7, 4)));
+    }
+
+    @Test
+    void getHistogramWithInvalidRange() throws Exception {
+        restSearchHistoryDailyCountMockMvc.perform(get(ENTITY_API_URL + "?from=1600-01-02&to=1600-01-01")).andExpect(status().isBadRequest());
+        restSearchHistoryDailyCountMockMvc.perform(get(ENTITY_API_URL + "?from=1600-01-01&to=1700-01-01")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTopDates() throws Exception {
+        searchHistoryDailyCountService.add(FIRST_DATE.toEpochDay(), Long.MAX_VALUE / 4);
+        searchHistoryDailyCountService.add(SECOND_DATE.toEpochDay(), Long.MAX_VALUE / 2);
+        searchHistoryDailyCountService.flush();
+
+        restSearchHistoryDailyCountMockMvc
+            .perform(get(ENTITY_API_URL + "/top?limit=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].searchedDate").value(contains("1600-01-02", "1600-01-01")));
+    }
+
+    @Test
+    void getTopDatesWithInvalidLimit() throws Exception {
+        restSearchHistoryDailyCountMockMvc.perform(get(ENTITY_API_URL + "/top?limit=0")).andExpect(status().isBadRequest());
+        restSearchHistoryDailyCountMockMvc
+            .perform(get(ENTITY_API_URL + "/top?limit=" + (SearchHistoryDailyCountResource.MAX_TOP_LIMIT + 1)))
+            .andExpect(status().isBadRequest());
+    }
+}
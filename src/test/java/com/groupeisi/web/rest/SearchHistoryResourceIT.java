@@ -3,26 +3,39 @@ package com.groupeisi.web.rest;
 import static com.groupeisi.domain.SearchHistoryAsserts.*;
 //import static com.groupeisi.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.groupeisi.IntegrationTest;
+import com.groupeisi.config.SqlStatementRecorder;
 import com.groupeisi.domain.SearchHistory;
+import com.groupeisi.domain.SearchHistory_;
 import com.groupeisi.repository.SearchHistoryRepository;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -35,9 +48,10 @@ class SearchHistoryResourceIT {
 
     private static final LocalDate DEFAULT_SEARCHED_DATE = LocalDate.ofEpochDay(0L);
     private static final LocalDate UPDATED_SEARCHED_DATE = LocalDate.now(ZoneId.systemDefault());
+    private static final LocalDate SMALLER_SEARCHED_DATE = LocalDate.ofEpochDay(-1L);
 
-    private static final String DEFAULT_DAY_OF_WEEK = "AAAAAAAAAA";
-    private static final String UPDATED_DAY_OF_WEEK = "BBBBBBBBBB";
+    private static final String DEFAULT_DAY_OF_WEEK = "MONDAY";
+    private static final String UPDATED_DAY_OF_WEEK = "TUESDAY";
 
     private static final String ENTITY_API_URL = "/api/search-histories";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -54,6 +68,9 @@ class SearchHistoryResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private MockMvc restSearchHistoryMockMvc;
 
@@ -123,6 +140,19 @@ class SearchHistoryResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createSearchHistoryWithInvalidDayOfWeek() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        searchHistory.setDayOfWeek("monday");
+
+        restSearchHistoryMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(searchHistory)))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     void getAllSearchHistories() throws Exception {
@@ -155,6 +185,368 @@ class SearchHistoryResourceIT {
             .andExpect(jsonPath("$.dayOfWeek").value(DEFAULT_DAY_OF_WEEK));
     }
 
+    @Test
+    @Transactional
+    void getAllSearchHistoriesIsPaginated() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&page=0&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("rel=\"last\"")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(searchHistory.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesWithoutCount() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+        searchHistoryRepository.saveAndFlush(createUpdatedEntity(em));
+
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&page=0&size=1&count=false"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andExpect(header().string("Link", not(containsString("rel=\"last\""))))
+            .andExpect(jsonPath("$.length()").value(1));
+
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&page=0&size=1&count=false&id.equals=" + searchHistory.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[0].id").value(searchHistory.getId().intValue()));
+    }
+
+    @Test
+    void exportSearchHistoriesAsNdjson() throws Exception {
+        // The export runs in its own transaction, so the entity has to be committed
+        searchHistoryRepository.saveAndFlush(searchHistory);
+        try {
+            MvcResult result = restSearchHistoryMockMvc
+                .perform(get(ENTITY_API_URL + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restSearchHistoryMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("search-histories.ndjson")))
+                .andExpect(
+                    content()
+                        .string(
+                            containsString(
+                                "{\"id\":" +
+                                searchHistory.getId() +
+                                ",\"searchedDate\":\"" +
+                                DEFAULT_SEARCHED_DATE +
+                                "\",\"dayOfWeek\":\"" +
+                                DEFAULT_DAY_OF_WEEK +
+                                "\"}\n"
+                            )
+                        )
+                );
+        } finally {
+            searchHistoryRepository.deleteById(searchHistory.getId());
+        }
+    }
+
+    @Test
+    void exportSearchHistoriesAsCsv() throws Exception {
+        // The export runs in its own transaction, so the entity has to be committed
+        searchHistoryRepository.saveAndFlush(searchHistory);
+        try {
+            MvcResult result = restSearchHistoryMockMvc
+                .perform(get(ENTITY_API_URL + "/export").accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restSearchHistoryMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("id,searchedDate,dayOfWeek\r\n")))
+                .andExpect(content().string(containsString(searchHistory.getId() + "," + DEFAULT_SEARCHED_DATE + "," + DEFAULT_DAY_OF_WEEK + "\r\n")));
+        } finally {
+            searchHistoryRepository.deleteById(searchHistory.getId());
+        }
+    }
+
+    @Test
+    void exportSearchHistoriesBypassesTheSecondLevelCache() throws Exception {
+        // The export runs in its own transaction, so the entity has to be committed
+        searchHistoryRepository.saveAndFlush(searchHistory);
+        entityManagerFactory.getCache().evict(SearchHistory.class);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            MvcResult result = restSearchHistoryMockMvc
+                .perform(get(ENTITY_API_URL + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            restSearchHistoryMockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("{\"id\":" + searchHistory.getId() + ",")));
+
+            assertThat(statistics.getDomainDataRegionStatistics(SearchHistory.class.getName()).getPutCount()).isZero();
+            assertThat(entityManagerFactory.getCache().contains(SearchHistory.class, searchHistory.getId())).isFalse();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+            searchHistoryRepository.deleteById(searchHistory.getId());
+        }
+    }
+
+    @Test
+    void importSearchHistoriesFromCsv() throws Exception {
+        LocalDate first = LocalDate.of(1700, 1, 1);
+        LocalDate second = first.plusDays(1);
+        LocalDate third = first.plusDays(2);
+        String csv =
+            "searchedDate,dayOfWeek\r\n" +
+            first +
+            "," +
+            first.getDayOfWeek() +
+            "\r\n" +
+            second +
+            ",\r\n" +
+            third +
+            "," +
+            third.plusDays(1).getDayOfWeek() +
+            "\r\n" +
+            "not-a-date,MONDAY\r\n";
+
+        // The import commits in its own transactions
+        try {
+            restSearchHistoryMockMvc
+                .perform(post(ENTITY_API_URL + "/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(4))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.rejections.[0].line").value(4))
+                .andExpect(jsonPath("$.rejections.[1].line").value(5));
+
+            assertThat(findBySearchedDates(first, second, third))
+                .extracting(SearchHistory::getSearchedDate, SearchHistory::getDayOfWeek)
+                .containsExactlyInAnyOrder(
+                    tuple(first, first.getDayOfWeek().name()),
+                    tuple(second, second.getDayOfWeek().name())
+                );
+        } finally {
+            searchHistoryRepository.deleteAll(findBySearchedDates(first, second, third));
+        }
+    }
+
+    @Test
+    void importSearchHistoriesFromNdjson() throws Exception {
+        LocalDate first = LocalDate.of(1701, 1, 1);
+        String ndjson =
+            "{\"searchedDate\":\"" +
+            first +
+            "\",\"dayOfWeek\":\"" +
+            first.getDayOfWeek() +
+            "\"}\n" +
+            "{\"searchedDate\":\"" +
+            first.plusDays(1) +
+            "\"}\n" +
+            "{\"searchedDate\":\n";
+
+        try {
+            restSearchHistoryMockMvc
+                .perform(post(ENTITY_API_URL + "/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections.[0].reason").value("Invalid JSON"));
+
+            assertThat(findBySearchedDates(first, first.plusDays(1))).hasSize(2);
+        } finally {
+            searchHistoryRepository.deleteAll(findBySearchedDates(first, first.plusDays(1)));
+        }
+    }
+
+    @Test
+    void getSearchHistoryFeed() throws Exception {
+        MvcResult result = restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + "/feed").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Changes are only pushed once committed
+        SearchHistory saved = searchHistoryRepository.save(new SearchHistory().searchedDate(LocalDate.of(1702, 1, 2)).dayOfWeek("MONDAY"));
+        try {
+            long deadline = System.currentTimeMillis() + 5000;
+            String content = result.getResponse().getContentAsString();
+            while (!content.contains("\"id\":" + saved.getId()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                content = result.getResponse().getContentAsString();
+            }
+            assertThat(content).contains("event:created").contains("\"id\":" + saved.getId());
+        } finally {
+            searchHistoryRepository.delete(saved);
+            result.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    private List<SearchHistory> findBySearchedDates(LocalDate... dates) {
+        return searchHistoryRepository.findAll((root, query, builder) -> root.get(SearchHistory_.searchedDate).in((Object[]) dates));
+    }
+
+    @Test
+    @Transactional
+    void getSearchHistoriesByIdFiltering() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        Long id = searchHistory.getId();
+
+        defaultSearchHistoryShouldBeFound("id.equals=" + id);
+        defaultSearchHistoryShouldNotBeFound("id.notEquals=" + id);
+
+        defaultSearchHistoryShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultSearchHistoryShouldNotBeFound("id.greaterThan=" + id);
+
+        defaultSearchHistoryShouldBeFound("id.lessThanOrEqual=" + id);
+        defaultSearchHistoryShouldNotBeFound("id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesBySearchedDateIsEqualToSomething() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound("searchedDate.equals=" + DEFAULT_SEARCHED_DATE);
+        defaultSearchHistoryShouldNotBeFound("searchedDate.equals=" + UPDATED_SEARCHED_DATE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesBySearchedDateIsInShouldWork() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound("searchedDate.in=" + DEFAULT_SEARCHED_DATE + "," + UPDATED_SEARCHED_DATE);
+        defaultSearchHistoryShouldNotBeFound("searchedDate.in=" + UPDATED_SEARCHED_DATE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesBySearchedDateIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound("searchedDate.specified=true");
+        defaultSearchHistoryShouldNotBeFound("searchedDate.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesBySearchedDateIsInRange() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound(
+            "searchedDate.greaterThanOrEqual=" + DEFAULT_SEARCHED_DATE + "&searchedDate.lessThan=" + UPDATED_SEARCHED_DATE
+        );
+        defaultSearchHistoryShouldNotBeFound("searchedDate.greaterThan=" + DEFAULT_SEARCHED_DATE);
+        defaultSearchHistoryShouldNotBeFound("searchedDate.lessThan=" + DEFAULT_SEARCHED_DATE);
+        defaultSearchHistoryShouldNotBeFound("searchedDate.lessThanOrEqual=" + SMALLER_SEARCHED_DATE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesByDayOfWeekIsEqualToSomething() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound("dayOfWeek.equals=" + DEFAULT_DAY_OF_WEEK);
+        defaultSearchHistoryShouldNotBeFound("dayOfWeek.equals=" + UPDATED_DAY_OF_WEEK);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesByDayOfWeekIsInShouldWork() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound("dayOfWeek.in=" + DEFAULT_DAY_OF_WEEK + "," + UPDATED_DAY_OF_WEEK);
+        defaultSearchHistoryShouldNotBeFound("dayOfWeek.in=" + UPDATED_DAY_OF_WEEK);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesByDayOfWeekContainsSomething() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        defaultSearchHistoryShouldBeFound("dayOfWeek.contains=" + DEFAULT_DAY_OF_WEEK);
+        defaultSearchHistoryShouldNotBeFound("dayOfWeek.contains=" + UPDATED_DAY_OF_WEEK);
+    }
+
+    @Test
+    @Transactional
+    void getAllSearchHistoriesByDayOfWeekIgnoresTheCase() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+
+        String defaultDayOfWeek = DEFAULT_DAY_OF_WEEK.toLowerCase(Locale.ROOT);
+        String updatedDayOfWeek = UPDATED_DAY_OF_WEEK.toLowerCase(Locale.ROOT);
+        defaultSearchHistoryShouldBeFound("dayOfWeek.equals=" + defaultDayOfWeek);
+        defaultSearchHistoryShouldNotBeFound("dayOfWeek.notEquals=" + defaultDayOfWeek);
+        defaultSearchHistoryShouldBeFound("dayOfWeek.in=" + defaultDayOfWeek + "," + updatedDayOfWeek);
+        defaultSearchHistoryShouldNotBeFound("dayOfWeek.notIn=" + defaultDayOfWeek);
+        defaultSearchHistoryShouldBeFound("dayOfWeek.contains=mon");
+        defaultSearchHistoryShouldNotBeFound("dayOfWeek.doesNotContain=mon");
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     * The search is restricted to the default entity, so that rows left by other tests do not interfere.
+     */
+    private void defaultSearchHistoryShouldBeFound(String filter) throws Exception {
+        String restriction = "?sort=id,desc&id.in=" + searchHistory.getId() + "&" + filter;
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + restriction))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(searchHistory.getId().intValue())))
+            .andExpect(jsonPath("$.[*].searchedDate").value(hasItem(DEFAULT_SEARCHED_DATE.toString())))
+            .andExpect(jsonPath("$.[*].dayOfWeek").value(hasItem(DEFAULT_DAY_OF_WEEK)));
+
+        // Check, that the count call also returns 1
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + "/count" + restriction))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultSearchHistoryShouldNotBeFound(String filter) throws Exception {
+        String restriction = "?sort=id,desc&id.in=" + searchHistory.getId() + "&" + filter;
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + restriction))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restSearchHistoryMockMvc
+            .perform(get(ENTITY_API_URL + "/count" + restriction))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
     @Test
     @Transactional
     void getNonExistingSearchHistory() throws Exception {
@@ -189,20 +581,48 @@ class SearchHistoryResourceIT {
         assertPersistedSearchHistoryToMatchAllProperties(updatedSearchHistory);
     }
 
+    @Test
+    @Transactional
+    void putExistingSearchHistoryWithOneSelectAndOneUpdate() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+        em.clear();
+
+        SearchHistory updatedSearchHistory = new SearchHistory()
+            .id(searchHistory.getId())
+            .searchedDate(UPDATED_SEARCHED_DATE)
+            .dayOfWeek(UPDATED_DAY_OF_WEEK);
+
+        SqlStatementRecorder.start();
+        restSearchHistoryMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedSearchHistory.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(updatedSearchHistory))
+            )
+            .andExpect(status().isOk());
+        em.flush();
+        List<String> statements = SqlStatementRecorder.stop();
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).startsWithIgnoringCase("select").containsIgnoringCase("for update");
+        assertThat(statements.get(1)).startsWithIgnoringCase("update");
+        assertPersistedSearchHistoryToMatchAllProperties(updatedSearchHistory);
+    }
+
     @Test
     @Transactional
     void putNonExistingSearchHistory() throws Exception {
         long databaseSizeBeforeUpdate = getRepositoryCount();
         searchHistory.setId(longCount.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
         restSearchHistoryMockMvc
             .perform(
                 put(ENTITY_API_URL_ID, searchHistory.getId())
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(om.writeValueAsBytes(searchHistory))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the SearchHistory in the database
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
@@ -301,20 +721,46 @@ class SearchHistoryResourceIT {
         assertSearchHistoryUpdatableFieldsEquals(partialUpdatedSearchHistory, getPersistedSearchHistory(partialUpdatedSearchHistory));
     }
 
+    @Test
+    @Transactional
+    void partialUpdateSearchHistoryWithOneSelectAndOneUpdate() throws Exception {
+        // Initialize the database
+        searchHistoryRepository.saveAndFlush(searchHistory);
+        em.clear();
+
+        SearchHistory partialUpdatedSearchHistory = new SearchHistory().id(searchHistory.getId()).dayOfWeek(UPDATED_DAY_OF_WEEK);
+
+        SqlStatementRecorder.start();
+        restSearchHistoryMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedSearchHistory.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedSearchHistory))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.searchedDate").value(DEFAULT_SEARCHED_DATE.toString()))
+            .andExpect(jsonPath("$.dayOfWeek").value(UPDATED_DAY_OF_WEEK));
+        em.flush();
+        List<String> statements = SqlStatementRecorder.stop();
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).startsWithIgnoringCase("select").containsIgnoringCase("for update");
+        assertThat(statements.get(1)).startsWithIgnoringCase("update");
+    }
+
     @Test
     @Transactional
     void patchNonExistingSearchHistory() throws Exception {
         long databaseSizeBeforeUpdate = getRepositoryCount();
         searchHistory.setId(longCount.incrementAndGet());
 
-        // If the entity doesn't have an ID, it will throw BadRequestAlertException
         restSearchHistoryMockMvc
             .perform(
                 patch(ENTITY_API_URL_ID, searchHistory.getId())
                     .contentType("application/merge-patch+json")
                     .content(om.writeValueAsBytes(searchHistory))
             )
-            .andExpect(status().isBadRequest());
+            .andExpect(status().isNotFound());
 
         // Validate the SearchHistory in the database
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
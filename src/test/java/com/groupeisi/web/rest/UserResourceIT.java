@@ -1,6 +1,7 @@
 package com.groupeisi.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -11,21 +12,29 @@ import com.groupeisi.domain.User;
 import com.groupeisi.repository.UserRepository;
 import com.groupeisi.security.AuthoritiesConstants;
 import com.groupeisi.service.dto.AdminUserDTO;
+import com.groupeisi.service.dto.UserBulkOperationDTO;
 import com.groupeisi.service.mapper.UserMapper;
+import com.jayway.jsonpath.JsonPath;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Integration tests for the {@link UserResource} REST controller.
@@ -174,6 +183,72 @@ class UserResourceIT {
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
     }
 
+    @Test
+    @Transactional
+    void provisionUsersFromCsv() throws Exception {
+        userRepository.saveAndFlush(user);
+        String csv =
+            "login,email,firstName,lastName,langKey,authorities\r\n" +
+            "Provisioned1,Provisioned1@localhost,john,doe,fr,ROLE_USER;ROLE_ADMIN\r\n" +
+            "provisioned2,,,,,\r\n" +
+            "provisioned1,other@localhost,,,,\r\n" +
+            DEFAULT_LOGIN +
+            ",other" +
+            DEFAULT_EMAIL +
+            ",,,,\r\n" +
+            ",nologin@localhost,,,,\r\n" +
+            "provisioned3,provisioned3@localhost,,,,ROLE_UNKNOWN\r\n";
+
+        restUserMockMvc
+            .perform(post("/api/admin/users/provision").contentType("text/csv").content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows").value(6))
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.rejected").value(4))
+            .andExpect(jsonPath("$.results.[*].line").value(contains(2, 3, 4, 5, 6, 7)))
+            .andExpect(
+                jsonPath("$.results.[*].status").value(contains("CREATED", "CREATED", "REJECTED", "REJECTED", "REJECTED", "REJECTED"))
+            )
+            .andExpect(jsonPath("$.results.[0].login").value("provisioned1"))
+            .andExpect(jsonPath("$.results.[3].reason").value("Login or email already in use"))
+            .andExpect(jsonPath("$.results.[5].reason").value("Unknown authority ROLE_UNKNOWN"));
+
+        User provisioned = userRepository.findOneWithAuthoritiesByLogin("provisioned1").orElseThrow();
+        assertThat(provisioned.getEmail()).isEqualTo("provisioned1@localhost");
+        assertThat(provisioned.getFirstName()).isEqualTo(DEFAULT_FIRSTNAME);
+        assertThat(provisioned.getLangKey()).isEqualTo(UPDATED_LANGKEY);
+        assertThat(provisioned.isActivated()).isTrue();
+        assertThat(provisioned.getPassword()).hasSize(60);
+        assertThat(provisioned.getResetKey()).isNotNull();
+        assertThat(provisioned.getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("provisioned2").orElseThrow().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.USER);
+        assertThat(userRepository.findOneByLogin("provisioned3")).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void provisionUsersFromNdjson() throws Exception {
+        String ndjson =
+            "{\"login\":\"provisioned1\",\"email\":\"provisioned1@localhost\",\"authorities\":[\"ROLE_USER\"]}\n" +
+            "{\"id\":1,\"login\":\"provisioned2\"}\n" +
+            "{\"login\":\n";
+
+        restUserMockMvc
+            .perform(post("/api/admin/users/provision").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.rejected").value(2))
+            .andExpect(jsonPath("$.results.[1].reason").value("A new user cannot already have an ID"))
+            .andExpect(jsonPath("$.results.[2].line").value(3));
+
+        assertThat(userRepository.findOneByLogin("provisioned1")).isPresent();
+        assertThat(userRepository.findOneByLogin("provisioned2")).isEmpty();
+    }
+
     @Test
     @Transactional
     void createUserWithExistingLogin() throws Exception {
@@ -245,6 +320,77 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithCursor() throws Exception {
+        // Initialize the database, with null and equal sort keys
+        for (int i = 0; i < 7; i++) {
+            User otherUser = createEntity(em);
+            otherUser.setLastName(i % 3 == 0 ? null : "lastname-" + (i % 2));
+            otherUser.setActivated(i % 2 == 0);
+            userRepository.save(otherUser);
+        }
+        userRepository.saveAndFlush(user);
+
+        // The cursor follows the users in the order of the offset pages
+        List<String> sorts = List.of(
+            "id,asc",
+            "id,desc",
+            "login,asc",
+            "lastName,asc",
+            "lastName,desc",
+            "activated,desc",
+            "createdDate,asc"
+        );
+        for (String sort : sorts) {
+            String idSort = "id," + sort.substring(sort.indexOf(',') + 1);
+            MvcResult page = restUserMockMvc
+                .perform(get("/api/admin/users").param("sort", sort, idSort).param("size", "100"))
+                .andExpect(status().isOk())
+                .andReturn();
+            List<String> pageLogins = JsonPath.read(page.getResponse().getContentAsString(), "$[*].login");
+            assertThat(getLoginsByCursor(sort)).hasSize(8).containsExactlyElementsOf(pageLogins);
+        }
+
+        restUserMockMvc
+            .perform(get("/api/admin/users").param("cursor", "").param("count", "true"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"));
+        restUserMockMvc.perform(get("/api/admin/users").param("cursor", "not a cursor")).andExpect(status().isBadRequest());
+        String loginCursor = nextCursor(
+            restUserMockMvc.perform(get("/api/admin/users").param("sort", "login,asc").param("size", "1").param("cursor", "")).andReturn()
+        );
+        restUserMockMvc
+            .perform(get("/api/admin/users").param("sort", "email,asc").param("cursor", loginCursor))
+            .andExpect(status().isBadRequest());
+        restUserMockMvc
+            .perform(get("/api/admin/users").param("sort", "login,asc", "email,asc").param("cursor", ""))
+            .andExpect(status().isBadRequest());
+    }
+
+    private List<String> getLoginsByCursor(String sort) throws Exception {
+        List<String> logins = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MvcResult slice = restUserMockMvc
+                .perform(get("/api/admin/users").param("sort", sort).param("size", "3").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn();
+            logins.addAll(JsonPath.<List<String>>read(slice.getResponse().getContentAsString(), "$[*].login"));
+            cursor = nextCursor(slice);
+        }
+        return logins;
+    }
+
+    /**
+     * @return the continuation token of the next slice, from the {@code Link} header, or {@code null} for the last slice.
+     */
+    static String nextCursor(MvcResult slice) {
+        Matcher next = Pattern.compile("<([^>]*)>; rel=\"next\"").matcher(slice.getResponse().getHeader(HttpHeaders.LINK));
+        return next.find() ? UriComponentsBuilder.fromUriString(next.group(1)).build().getQueryParams().getFirst("cursor") : null;
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -274,6 +420,74 @@ class UserResourceIT {
         restUserMockMvc.perform(get("/api/admin/users/unknown")).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void applyBulkOperations() throws Exception {
+        List<String> logins = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            logins.add(userRepository.saveAndFlush(createEntity(em)).getLogin());
+        }
+        UserBulkOperationDTO bulkOperation = new UserBulkOperationDTO();
+        bulkOperation.setOperation(UserBulkOperationDTO.Operation.DEACTIVATE);
+        bulkOperation.setLogins(new HashSet<>(logins));
+        bulkOperation.getLogins().add("unknown-login");
+
+        performBulkOperation(bulkOperation)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.requested").value(4))
+            .andExpect(jsonPath("$.updated").value(3))
+            .andExpect(jsonPath("$.notFound").value(contains("unknown-login")));
+
+        em.clear();
+        assertThat(userRepository.findAll())
+            .filteredOn(user -> logins.contains(user.getLogin()))
+            .hasSize(3)
+            .allSatisfy(user -> {
+                assertThat(user.isActivated()).isFalse();
+                assertThat(user.getLastModifiedBy()).isEqualTo("user");
+            });
+
+        bulkOperation.setOperation(UserBulkOperationDTO.Operation.ADD_AUTHORITIES);
+        bulkOperation.setAuthorities(Set.of(AuthoritiesConstants.ADMIN));
+        performBulkOperation(bulkOperation)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(3));
+        // adding them again does not duplicate them
+        performBulkOperation(bulkOperation).andExpect(status().isOk());
+
+        em.clear();
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(logins.get(0)).orElseThrow().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.ADMIN);
+
+        bulkOperation.setOperation(UserBulkOperationDTO.Operation.REMOVE_AUTHORITIES);
+        performBulkOperation(bulkOperation).andExpect(status().isOk());
+
+        em.clear();
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(logins.get(0)).orElseThrow().getAuthorities()).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void applyBulkOperationWithUnknownAuthority() throws Exception {
+        userRepository.saveAndFlush(user);
+        UserBulkOperationDTO bulkOperation = new UserBulkOperationDTO();
+        bulkOperation.setOperation(UserBulkOperationDTO.Operation.ADD_AUTHORITIES);
+        bulkOperation.setLogins(Set.of(DEFAULT_LOGIN));
+        bulkOperation.setAuthorities(Set.of("ROLE_UNKNOWN"));
+
+        performBulkOperation(bulkOperation).andExpect(status().isBadRequest());
+
+        bulkOperation.setAuthorities(null);
+        performBulkOperation(bulkOperation).andExpect(status().isBadRequest());
+    }
+
+    private ResultActions performBulkOperation(UserBulkOperationDTO bulkOperation) throws Exception {
+        return restUserMockMvc.perform(
+            post("/api/admin/users/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulkOperation))
+        );
+    }
+
     @Test
     @Transactional
     void updateUser() throws Exception {